@@ -24,7 +24,7 @@ import java.util.regex.Pattern;
 import me.angrybyte.goose.Article;
 import me.angrybyte.goose.Configuration;
 import me.angrybyte.goose.ContentExtractor;
-import me.angrybyte.goose.network.GooseDownloader;
+import me.angrybyte.goose.android.Bitmaps;
 
 public class DemoActivity extends AppCompatActivity implements View.OnClickListener {
 
@@ -76,7 +76,7 @@ public class DemoActivity extends AppCompatActivity implements View.OnClickListe
             Bitmap photo = null;
             if (article.getTopImage() != null) {
                 try {
-                    photo = GooseDownloader.getPhoto(article.getTopImage().getImageSrc(), true);
+                    photo = Bitmaps.getPhoto(article.getTopImage().getImageSrc(), true);
                 } catch (Exception ignored) {
                 }
             }
@@ -0,0 +1,103 @@
+package me.angrybyte.goose;
+
+import me.angrybyte.goose.cleaners.DefaultDocumentCleaner;
+import me.angrybyte.goose.scoring.NodeScores;
+import me.angrybyte.goose.scoring.NodeStats;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The pages the benchmarks run over, one per site from the screenshots. They live in the {@code fixtures} resources next to this class
+ * and are named after the site, like "bbc" or "business_insider". Also takes a page through the pipeline up to the stage a benchmark
+ * measures, the same way {@link DefaultStages} does.
+ */
+public final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    /**
+     * @return The html of the page
+     */
+    public static String read(String site) {
+        InputStream in = Fixtures.class.getResourceAsStream("fixtures/" + site + ".html");
+        if (in == null) {
+            throw new IllegalArgumentException("No fixture for " + site + "!");
+        }
+
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toString("UTF-8");
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            try {
+                in.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * @return The url we pretend the page came from
+     */
+    public static String url(String site) {
+        return "http://www.example.com/" + site + ".html";
+    }
+
+    /**
+     * @return The parsed page
+     */
+    public static Document parse(String site) {
+        return new ParseWrapper().parse(read(site), url(site));
+    }
+
+    /**
+     * @return The parsed and cleaned page, ready for looking for the top node
+     */
+    public static Document clean(String site) {
+        return new DefaultDocumentCleaner().clean(parse(site));
+    }
+
+    /**
+     * Finds the top node of a cleaned page. It doesn't change the document, so the same one can be scored over and over.
+     */
+    public static Element calculateBestNode(Document doc, NodeScores scores, NodeStats stats) {
+        return ContentExtractor.calculateBestNodeBasedOnClustering(doc, scores, stats);
+    }
+
+    /**
+     * @return The top node of the page with its siblings added and junk removed, what the output formatter gets
+     */
+    public static Element topNode(String site, NodeScores scores, NodeStats stats) {
+        Element topNode = calculateBestNode(clean(site), scores, stats);
+        return ContentExtractor.cleanupNode(topNode, scores, stats);
+    }
+
+    /**
+     * @return The text of every paragraph on the page, as the scoring code sees it
+     */
+    public static List<String> paragraphs(String site) {
+        List<String> paragraphs = new ArrayList<>();
+        for (Element p : parse(site).getElementsByTag("p")) {
+            String text = p.text();
+            if (!text.isEmpty()) {
+                paragraphs.add(text);
+            }
+        }
+        return paragraphs;
+    }
+
+}
@@ -0,0 +1,42 @@
+package me.angrybyte.goose;
+
+import org.jsoup.nodes.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ParseWrapper#parse(String, String)}, html to a jsoup document
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ParseBenchmark {
+
+    @Param({
+            "bbc", "wired", "verge", "cnet", "pcmag", "business_insider"
+    })
+    public String site;
+
+    private String html;
+    private String url;
+
+    @Setup
+    public void setUp() {
+        html = Fixtures.read(site);
+        url = Fixtures.url(site);
+    }
+
+    @Benchmark
+    public Document parse() {
+        return new ParseWrapper().parse(html, url);
+    }
+
+}
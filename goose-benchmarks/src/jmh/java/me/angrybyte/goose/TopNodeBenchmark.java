@@ -0,0 +1,48 @@
+package me.angrybyte.goose;
+
+import me.angrybyte.goose.scoring.NodeScores;
+import me.angrybyte.goose.scoring.NodeStats;
+import me.angrybyte.goose.texthelpers.StopWords;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ContentExtractor#calculateBestNodeBasedOnClustering(Document, NodeScores, NodeStats)} on a cleaned page. Scoring doesn't touch
+ * the document, so it's cleaned once and every call starts with empty scores and stats, like a new extraction does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TopNodeBenchmark {
+
+    @Param({
+            "bbc", "wired", "verge", "cnet", "pcmag", "business_insider"
+    })
+    public String site;
+
+    private Document doc;
+    private StopWords stopWords;
+
+    @Setup
+    public void setUp() {
+        doc = Fixtures.clean(site);
+        stopWords = StopWords.forLanguage(StopWords.DEFAULT_LANGUAGE);
+    }
+
+    @Benchmark
+    public Element calculateBestNodeBasedOnClustering() {
+        return ContentExtractor.calculateBestNodeBasedOnClustering(doc, new NodeScores(), new NodeStats(stopWords));
+    }
+
+}
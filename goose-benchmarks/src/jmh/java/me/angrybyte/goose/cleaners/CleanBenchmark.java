@@ -0,0 +1,53 @@
+package me.angrybyte.goose.cleaners;
+
+import me.angrybyte.goose.Fixtures;
+import me.angrybyte.goose.ParseWrapper;
+
+import org.jsoup.nodes.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DefaultDocumentCleaner#clean(Document)} on a freshly parsed page. Cleaning changes the document, so every call gets a new one,
+ * parsed outside of the measurement.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CleanBenchmark {
+
+    @Param({
+            "bbc", "wired", "verge", "cnet", "pcmag", "business_insider"
+    })
+    public String site;
+
+    private String html;
+    private String url;
+    private Document doc;
+
+    @Setup
+    public void setUp() {
+        html = Fixtures.read(site);
+        url = Fixtures.url(site);
+    }
+
+    @Setup(Level.Invocation)
+    public void parse() {
+        doc = new ParseWrapper().parse(html, url);
+    }
+
+    @Benchmark
+    public Document clean() {
+        return new DefaultDocumentCleaner().clean(doc);
+    }
+
+}
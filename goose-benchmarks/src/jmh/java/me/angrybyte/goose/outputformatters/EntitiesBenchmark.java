@@ -0,0 +1,63 @@
+package me.angrybyte.goose.outputformatters;
+
+import me.angrybyte.goose.Fixtures;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Entities#unescape(String)} over every paragraph of a page. The formatter mostly gets text jsoup already decoded, with nothing
+ * to unescape, so that's measured along with the same text escaped with the HTML 4.0 entities, where every quote, ampersand and
+ * non-ASCII char is an entity.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EntitiesBenchmark {
+
+    @Param({
+            "bbc", "wired", "verge", "cnet", "pcmag", "business_insider"
+    })
+    public String site;
+
+    private String[] decoded;
+    private String[] escaped;
+
+    @Setup
+    public void setUp() {
+        List<String> paragraphs = Fixtures.paragraphs(site);
+        decoded = paragraphs.toArray(new String[paragraphs.size()]);
+        escaped = new String[decoded.length];
+        for (int i = 0; i < decoded.length; i++) {
+            escaped[i] = Entities.HTML40.escape(decoded[i]);
+        }
+    }
+
+    @Benchmark
+    public int unescapeDecoded() {
+        return unescapeAll(decoded);
+    }
+
+    @Benchmark
+    public int unescapeEscaped() {
+        return unescapeAll(escaped);
+    }
+
+    private static int unescapeAll(String[] texts) {
+        int length = 0;
+        for (String text : texts) {
+            length += Entities.HTML40.unescape(text).length();
+        }
+        return length;
+    }
+
+}
@@ -0,0 +1,57 @@
+package me.angrybyte.goose.outputformatters;
+
+import me.angrybyte.goose.Fixtures;
+import me.angrybyte.goose.scoring.NodeScores;
+import me.angrybyte.goose.scoring.NodeStats;
+import me.angrybyte.goose.texthelpers.StopWords;
+
+import org.jsoup.nodes.Element;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DefaultOutputFormatter#getFormattedText(Element)} on the top node of a page. Formatting changes the top node, so every call
+ * gets a new one, with the scores and stats of the extraction that found it. Getting there isn't measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FormatterBenchmark {
+
+    @Param({
+            "bbc", "wired", "verge", "cnet", "pcmag", "business_insider"
+    })
+    public String site;
+
+    private StopWords stopWords;
+    private DefaultOutputFormatter formatter;
+    private Element topNode;
+
+    @Setup
+    public void setUp() {
+        stopWords = StopWords.forLanguage(StopWords.DEFAULT_LANGUAGE);
+    }
+
+    @Setup(Level.Invocation)
+    public void findTopNode() {
+        NodeScores scores = new NodeScores();
+        NodeStats stats = new NodeStats(stopWords);
+        topNode = Fixtures.topNode(site, scores, stats);
+        formatter = new DefaultOutputFormatter(scores, stats);
+    }
+
+    @Benchmark
+    public String getFormattedText() {
+        return formatter.getFormattedText(topNode);
+    }
+
+}
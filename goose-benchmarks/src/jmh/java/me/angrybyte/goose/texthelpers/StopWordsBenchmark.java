@@ -0,0 +1,87 @@
+package me.angrybyte.goose.texthelpers;
+
+import me.angrybyte.goose.Fixtures;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link StopWords#getStopWordCount(String)} over every paragraph of a page, against the way it used to be counted: strip the
+ * punctuation, split on spaces and look up each lower cased word in a {@link HashSet}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StopWordsBenchmark {
+
+    @Param({
+            "bbc", "wired", "verge", "cnet", "pcmag", "business_insider"
+    })
+    public String site;
+
+    private String[] paragraphs;
+    private Set<String> hashSet;
+
+    @Setup
+    public void setUp() {
+        List<String> texts = Fixtures.paragraphs(site);
+        paragraphs = texts.toArray(new String[texts.size()]);
+        hashSet = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(StopWords.getWords())));
+    }
+
+    @Benchmark
+    public int getStopWordCount() {
+        int count = 0;
+        for (String paragraph : paragraphs) {
+            count += StopWords.getStopWordCount(paragraph).getStopWordCount();
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int hashSetBaseline() {
+        int count = 0;
+        for (String paragraph : paragraphs) {
+            count += getStopWordCountWithHashSet(paragraph).getStopWordCount();
+        }
+        return count;
+    }
+
+    private WordStats getStopWordCountWithHashSet(String content) {
+        if (string.isNullOrEmpty(content)) return WordStats.EMPTY;
+
+        WordStats ws = new WordStats();
+
+        String strippedInput = StopWords.removePunctuation(content);
+        String[] words = string.SPACE_SPLITTER.split(strippedInput);
+
+        List<String> stopWords = new ArrayList<>();
+        // noinspection ForLoopReplaceableByForEach
+        for (int i = 0; i < words.length; i++) {
+            String word = words[i];
+            if (string.isNullOrEmpty(word)) continue;
+            String wordLower = word.toLowerCase();
+            if (hashSet.contains(wordLower)) stopWords.add(wordLower);
+        }
+
+        ws.setWordCount(words.length);
+        ws.setStopWordCount(stopWords.size());
+        ws.setStopWords(stopWords);
+        return ws;
+    }
+
+}
@@ -0,0 +1,51 @@
+package me.angrybyte.goose;
+
+import java.lang.reflect.Method;
+
+/**
+ * Reads how many bytes the current thread has allocated so far. That's only possible on JVMs with {@code com.sun.management}, which is
+ * looked up through reflection since Android has no {@code java.lang.management} at all.
+ */
+final class AllocationCounter {
+
+    private static final Object THREAD_BEAN;
+    private static final Method GET_THREAD_ALLOCATED_BYTES;
+
+    static {
+        Object threadBean = null;
+        Method getThreadAllocatedBytes = null;
+        try {
+            Object bean = Class.forName("java.lang.management.ManagementFactory").getMethod("getThreadMXBean").invoke(null);
+            Class<?> sunThreadBean = Class.forName("com.sun.management.ThreadMXBean");
+            if (sunThreadBean.isInstance(bean)
+                    && (Boolean) sunThreadBean.getMethod("isThreadAllocatedMemorySupported").invoke(bean)
+                    && (Boolean) sunThreadBean.getMethod("isThreadAllocatedMemoryEnabled").invoke(bean)) {
+                threadBean = bean;
+                getThreadAllocatedBytes = sunThreadBean.getMethod("getThreadAllocatedBytes", long.class);
+            }
+        } catch (Exception | LinkageError ignored) {
+            // not available on this platform
+        }
+        THREAD_BEAN = threadBean;
+        GET_THREAD_ALLOCATED_BYTES = getThreadAllocatedBytes;
+    }
+
+    private AllocationCounter() {
+    }
+
+    /**
+     * @return Bytes allocated by the current thread since it started, or -1 if we can't tell
+     */
+    static long getCurrentThreadAllocatedBytes() {
+        if (GET_THREAD_ALLOCATED_BYTES == null) {
+            return -1;
+        }
+
+        try {
+            return (Long) GET_THREAD_ALLOCATED_BYTES.invoke(THREAD_BEAN, Thread.currentThread().getId());
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+}
@@ -18,6 +18,7 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -94,6 +95,11 @@ public class Article {
 
     private Map<String, String> additionalData;
 
+    /**
+     * Names of the pipeline stages that didn't get to finish because the extraction ran out of time
+     */
+    private List<String> skippedStages;
+
     public String getTitle() {
         return title;
     }
@@ -243,4 +249,29 @@ public class Article {
         this.additionalData = additionalData;
     }
 
+    /**
+     * Stages are skipped once the extraction takes longer than {@link Configuration#getExtractionTimeout()}, the image stage is also
+     * listed if the timeout cut its search short. The fields those stages produce are missing or incomplete.
+     *
+     * @return Names of the skipped stages, in pipeline order, empty if the extraction finished in time
+     */
+    public List<String> getSkippedStages() {
+        if (skippedStages == null) {
+            skippedStages = new ArrayList<>();
+        }
+        return skippedStages;
+    }
+
+    public void setSkippedStages(List<String> skippedStages) {
+        this.skippedStages = skippedStages;
+    }
+
+    /**
+     * @return true if the extraction ran out of time and some of the fields are missing
+     */
+    @SuppressWarnings("unused")
+    public boolean isPartial() {
+        return skippedStages != null && !skippedStages.isEmpty();
+    }
+
 }
@@ -0,0 +1,22 @@
+package me.angrybyte.goose;
+
+/**
+ * The parts of an {@link Article} that {@link ExtractionStage}s fill in. Tell the extractor which ones you need with
+ * {@link Configuration#setWantedFields(java.util.Set)}, and the stages nobody needs are skipped.
+ */
+public enum ArticleField {
+
+    TITLE,
+    META_DESCRIPTION,
+    META_KEYWORDS,
+    CANONICAL_LINK,
+    DOMAIN,
+    PUBLISH_DATE,
+    ADDITIONAL_DATA,
+    TAGS,
+    TOP_NODE,
+    MOVIES,
+    TOP_IMAGE,
+    CLEANED_ARTICLE_TEXT
+
+}
@@ -0,0 +1,246 @@
+package me.angrybyte.goose;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs the phases of one extraction, hopping between the network and the CPU executor, and completes itself with the resulting
+ * {@link Article}. Network threads never parse, and CPU threads never wait on a socket. Pipeline stages run on the network executor if
+ * they say they're {@link ExtractionStage#isNetworkBound() network bound}. There's nothing to run here, the future is only completed by
+ * the phases.
+ */
+final class AsyncExtraction implements Future<Article> {
+
+    private final ContentExtractor extractor;
+    private final ExtractionContext context;
+    private final Executor networkExecutor;
+    private final Executor cpuExecutor;
+    private final ExtractionCallback callback;
+
+    // only touched by the phases, which run one after the other
+    private boolean finished;
+
+    private final CountDownLatch completion = new CountDownLatch(1);
+    private boolean done;
+    private boolean cancelled;
+    private Article article;
+    private Throwable failure;
+
+    AsyncExtraction(ContentExtractor extractor, ExtractionContext context, Executor networkExecutor, Executor cpuExecutor,
+                    ExtractionCallback callback) {
+        this.extractor = extractor;
+        this.context = context;
+        this.networkExecutor = networkExecutor;
+        this.cpuExecutor = cpuExecutor;
+        this.callback = callback;
+    }
+
+    void start() {
+        if (context.getSuppliedHtml() == null) {
+            runOn(networkExecutor, download);
+        } else {
+            runOn(cpuExecutor, download);
+        }
+    }
+
+    /**
+     * A phase of the extraction. Whatever it throws that isn't handled by the phase itself, even an {@link Error} on a pathological
+     * page, completes the future with that failure, so nobody waits on it forever.
+     */
+    private abstract class Phase implements Runnable {
+
+        @Override
+        public final void run() {
+            try {
+                runPhase();
+            } catch (Throwable t) {
+                fail(t);
+                throw t;
+            }
+        }
+
+        abstract void runPhase();
+
+    }
+
+    private final Runnable download = new Phase() {
+        @Override
+        void runPhase() {
+            try {
+                extractor.runStage(context, DefaultStages.DOWNLOAD);
+            } catch (Exception e) {
+                finish();
+                return;
+            }
+            runOn(cpuExecutor, parse);
+        }
+    };
+
+    private final Runnable parse = new Phase() {
+        @Override
+        void runPhase() {
+            try {
+                extractor.runStage(context, DefaultStages.PARSE);
+            } catch (Exception e) {
+                finish();
+                return;
+            }
+            new Stages(0, false).runPhase();
+        }
+    };
+
+    /**
+     * Runs the pipeline stages from the given one on, as long as they belong on the executor we're on, then hands the rest over to the
+     * other executor
+     */
+    private final class Stages extends Phase {
+
+        private final int from;
+        private final boolean onNetwork;
+
+        Stages(int from, boolean onNetwork) {
+            this.from = from;
+            this.onNetwork = onNetwork;
+        }
+
+        @Override
+        void runPhase() {
+            try {
+                List<ExtractionStage> stages = context.getStages();
+                for (int i = from; i < stages.size(); i++) {
+                    ExtractionStage stage = stages.get(i);
+                    if (extractor.skipIfOutOfTime(context, stage) || !stage.shouldProcess(context)) {
+                        continue;
+                    }
+
+                    if (stage.isNetworkBound() != onNetwork) {
+                        runOn(stage.isNetworkBound() ? networkExecutor : cpuExecutor, new Stages(i, stage.isNetworkBound()));
+                        return;
+                    }
+                    extractor.runStage(context, stage);
+                }
+            } catch (Exception ignored) {
+            }
+            finish();
+        }
+    }
+
+    /**
+     * Hands the next phase to the given executor, unless somebody cancelled us in the meantime
+     */
+    private void runOn(Executor executor, Runnable phase) {
+        if (isCancelled()) {
+            finishExtraction();
+            return;
+        }
+
+        try {
+            executor.execute(phase);
+        } catch (RejectedExecutionException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Completes the extraction with whatever we managed to extract, just like the blocking version does
+     */
+    private void finish() {
+        finishExtraction();
+        complete(context.getArticle(), null, false);
+    }
+
+    /**
+     * Completes the extraction with the failure, unless it's already complete
+     */
+    private void fail(Throwable failure) {
+        try {
+            finishExtraction();
+        } finally {
+            complete(null, failure, false);
+        }
+    }
+
+    /**
+     * Cleans up after the extraction, only the first time it's called
+     */
+    private void finishExtraction() {
+        if (!finished) {
+            finished = true;
+            extractor.finishExtraction(context);
+        }
+    }
+
+    /**
+     * Completes the future, only the first time it's called, and lets the callback know when there's an article
+     *
+     * @return true if this call completed the future
+     */
+    private boolean complete(Article article, Throwable failure, boolean cancelled) {
+        synchronized (this) {
+            if (done) {
+                return false;
+            }
+            this.done = true;
+            this.cancelled = cancelled;
+            this.article = article;
+            this.failure = failure;
+        }
+        completion.countDown();
+
+        // when rejected by an executor or failed there's no article to report
+        if (callback != null && !cancelled && failure == null) {
+            callback.onArticleExtracted(context.getUrlToCrawl(), article);
+        }
+        return true;
+    }
+
+    /**
+     * The phase that's running finishes, but nothing is started after it
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return complete(null, null, true);
+    }
+
+    @Override
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public synchronized boolean isDone() {
+        return done;
+    }
+
+    @Override
+    public Article get() throws InterruptedException, ExecutionException {
+        completion.await();
+        return getResult();
+    }
+
+    @Override
+    public Article get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        if (!completion.await(timeout, unit)) {
+            throw new TimeoutException();
+        }
+        return getResult();
+    }
+
+    private synchronized Article getResult() throws ExecutionException {
+        if (cancelled) {
+            throw new CancellationException();
+        }
+        if (failure != null) {
+            throw new ExecutionException(failure);
+        }
+        return article;
+    }
+
+}
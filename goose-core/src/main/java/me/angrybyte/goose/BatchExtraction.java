@@ -0,0 +1,235 @@
+package me.angrybyte.goose;
+
+import java.io.Closeable;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+
+import me.angrybyte.goose.texthelpers.string;
+
+/**
+ * Streams the {@link Article}s of a batch of URLs in the order their extractions complete. Get one from
+ * {@link ContentExtractor#extractAll(Collection, boolean)}.
+ * <p/>
+ * Only a limited number of extractions are in flight at any time, and new ones are only started as results are consumed, so a slow
+ * reader never piles up finished articles in memory. A host can't have more than {@link Configuration#getMaxExtractionsPerHost()}
+ * extractions in flight either, so one slow host can't tie up every worker. URLs that can't be extracted are skipped, the same way
+ * {@link ContentExtractor#extractContent(String, boolean)} would return {@code null} for them.
+ * <p/>
+ * Iterate it from a single thread. Call {@link #close()} if you stop iterating early. If the thread is interrupted while it waits for an
+ * article, the batch is closed and {@link #hasNext()} returns false as if it was done, check {@link #isInterrupted()} to tell the two
+ * apart. An extraction that dies with an {@link Error} closes the batch too, and the error is thrown from {@link #hasNext()}.
+ */
+public class BatchExtraction implements Iterator<Article>, Closeable {
+
+    /**
+     * Result of one URL, knows the host so we can give the host's slot back
+     */
+    private static final class Result {
+
+        final String host;
+        final Article article;
+
+        Result(String host, Article article) {
+            this.host = host;
+            this.article = article;
+        }
+    }
+
+    private final ContentExtractor extractor;
+    private final boolean forWebView;
+    private final CompletionService<Result> completionService;
+    private final ExecutorService ownedExecutor;
+    private final int maxInFlight;
+    private final int maxPerHost;
+
+    // URLs waiting to be submitted, grouped by host
+    private final Map<String, ArrayDeque<String>> pendingByHost = new LinkedHashMap<>();
+    // hosts with pending URLs that are below their limit, served round robin
+    private final ArrayDeque<String> readyHosts = new ArrayDeque<>();
+    private final Map<String, Integer> runningByHost = new HashMap<>();
+
+    private int inFlight;
+    private Article next;
+    private boolean closed;
+    private boolean interrupted;
+
+    /**
+     * @param executor      Where extractions run
+     * @param ownedExecutor Same as executor if this batch should shut it down when done, {@code null} if the caller owns it
+     */
+    BatchExtraction(ContentExtractor extractor, Collection<String> urls, boolean forWebView, Executor executor,
+                    ExecutorService ownedExecutor, int maxInFlight, int maxPerHost) {
+        if (maxInFlight < 1 || maxPerHost < 1)
+            throw new IllegalArgumentException("Parallelism limits must be at least 1!");
+
+        this.extractor = extractor;
+        this.forWebView = forWebView;
+        this.completionService = new ExecutorCompletionService<>(executor);
+        this.ownedExecutor = ownedExecutor;
+        this.maxInFlight = maxInFlight;
+        this.maxPerHost = maxPerHost;
+
+        for (String url : urls) {
+            String host = getHost(url);
+            ArrayDeque<String> hostUrls = pendingByHost.get(host);
+            if (hostUrls == null) {
+                hostUrls = new ArrayDeque<>();
+                pendingByHost.put(host, hostUrls);
+                readyHosts.add(host);
+            }
+            hostUrls.add(url);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+
+        while (!closed) {
+            submitReady();
+            if (inFlight == 0) {
+                close();
+                return false;
+            }
+
+            Result result;
+            try {
+                result = completionService.take().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                interrupted = true;
+                close();
+                return false;
+            } catch (ExecutionException e) {
+                // extraction tasks catch all exceptions themselves, so this is an Error, the rest of the batch is off
+                close();
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+
+            inFlight--;
+            releaseHost(result.host);
+            if (result.article != null) {
+                next = result.article;
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public Article next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Article article = next;
+        next = null;
+        return article;
+    }
+
+    /**
+     * @return true if the batch was cut short because the iterating thread was interrupted, the thread keeps its interrupted status
+     */
+    public boolean isInterrupted() {
+        return interrupted;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("Articles can't be removed from a batch");
+    }
+
+    /**
+     * Stops submitting new extractions and shuts down the executor if this batch created it. Already running extractions are interrupted.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        pendingByHost.clear();
+        readyHosts.clear();
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Fills the free slots with URLs from hosts that are still below their limit
+     */
+    private void submitReady() {
+        while (inFlight < maxInFlight && !readyHosts.isEmpty()) {
+            final String host = readyHosts.poll();
+            ArrayDeque<String> hostUrls = pendingByHost.get(host);
+            final String url = hostUrls.poll();
+
+            Integer running = runningByHost.get(host);
+            int nowRunning = running == null ? 1 : running + 1;
+            runningByHost.put(host, nowRunning);
+
+            if (hostUrls.isEmpty()) {
+                pendingByHost.remove(host);
+            } else if (nowRunning < maxPerHost) {
+                readyHosts.add(host);
+            }
+
+            completionService.submit(new Callable<Result>() {
+                @Override
+                public Result call() {
+                    return new Result(host, extract(url));
+                }
+            });
+            inFlight++;
+        }
+    }
+
+    private void releaseHost(String host) {
+        int running = runningByHost.get(host) - 1;
+        if (running == 0) {
+            runningByHost.remove(host);
+        } else {
+            runningByHost.put(host, running);
+        }
+
+        // the host was at its limit, so it wasn't waiting in the ready queue
+        if (running == maxPerHost - 1 && pendingByHost.containsKey(host)) {
+            readyHosts.add(host);
+        }
+    }
+
+    private Article extract(String url) {
+        try {
+            return extractor.extractContent(url, forWebView);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static String getHost(String url) {
+        try {
+            return new URL(url).getHost();
+        } catch (MalformedURLException e) {
+            return string.empty;
+        }
+    }
+
+}
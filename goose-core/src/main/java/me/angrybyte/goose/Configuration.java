@@ -0,0 +1,304 @@
+/**
+ * Licensed to Gravity.com under one or more contributor license agreements.  See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Gravity.com licenses this file to you under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package me.angrybyte.goose;
+
+import org.jsoup.nodes.Element;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import me.angrybyte.goose.extractors.AdditionalDataExtractor;
+import me.angrybyte.goose.extractors.PublishDateExtractor;
+
+/**
+ * Worker configuration
+ */
+public class Configuration {
+
+    /**
+     * What's the minimum bytes for an image we'd accept is, a lot of times we want to filter out the author's little images in the
+     * beginning of the article
+     */
+    private int minBytesForImages = 4500;
+
+    /**
+     * Where images are stored
+     */
+    private final String cacheDirectory;
+
+    /**
+     * Set this to false if you don't care about getting images
+     */
+    private boolean enableImageFetching = true;
+
+    /**
+     * How many extractions a batch runs at the same time, see {@link ContentExtractor#extractAll(java.util.Collection, boolean)}
+     */
+    private int maxParallelExtractions = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * How many extractions a batch runs at the same time against the same host, so one slow host can't take all the workers
+     */
+    private int maxExtractionsPerHost = 2;
+
+    /**
+     * Runs the blocking network work of async extractions (page and image downloads), see
+     * {@link ContentExtractor#extractContentAsync(String, boolean)}
+     */
+    private Executor networkExecutor;
+
+    /**
+     * Runs the CPU work of async extractions (parsing, cleaning, scoring and formatting)
+     */
+    private Executor cpuExecutor;
+
+    /**
+     * The stages every extraction runs through after parsing
+     */
+    private ExtractionPipeline extractionPipeline = ExtractionPipeline.createDefault();
+
+    /**
+     * The article fields you need, stages that don't produce any of these are skipped
+     */
+    private Set<ArticleField> wantedFields = Collections.unmodifiableSet(EnumSet.allOf(ArticleField.class));
+
+    /**
+     * Gets the stage timings of every extraction, nothing is measured without it
+     */
+    private ExtractionListener extractionListener;
+
+    /**
+     * How long a single extraction may take in milliseconds, 0 for no limit
+     */
+    private long extractionTimeout;
+
+    /**
+     * Language of the pages as an ISO 639 code, picks the stop words used for scoring. null to use the language each page declares
+     */
+    private String language;
+
+    public Configuration(String cacheDirectory) {
+        super();
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    private PublishDateExtractor publishDateExtractor = new PublishDateExtractor() {
+        @Override
+        public Date extract(Element rootElement) {
+            return null;
+        }
+    };
+
+    public PublishDateExtractor getPublishDateExtractor() {
+        return publishDateExtractor;
+    }
+
+    @SuppressWarnings("unused")
+    public void setPublishDateExtractor(PublishDateExtractor extractor) throws IllegalArgumentException {
+        if (extractor == null)
+            throw new IllegalArgumentException("extractor must not be null!");
+        this.publishDateExtractor = extractor;
+    }
+
+    private AdditionalDataExtractor additionalDataExtractor = new AdditionalDataExtractor() {
+        @Override
+        public Map<String, String> extract(Element rootElement) {
+            return null;
+        }
+    };
+
+    public AdditionalDataExtractor getAdditionalDataExtractor() {
+        return additionalDataExtractor;
+    }
+
+    @SuppressWarnings("unused")
+    public void setAdditionalDataExtractor(AdditionalDataExtractor extractor) {
+        additionalDataExtractor = extractor;
+    }
+
+    public int getMinBytesForImages() {
+        return minBytesForImages;
+    }
+
+    @SuppressWarnings("unused")
+    public void setMinBytesForImages(int minBytesForImages) {
+        this.minBytesForImages = minBytesForImages;
+    }
+
+    public boolean isEnableImageFetching() {
+        return enableImageFetching;
+    }
+
+    @SuppressWarnings("unused")
+    public void setEnableImageFetching(boolean enableImageFetching) {
+        this.enableImageFetching = enableImageFetching;
+    }
+
+    public int getMaxParallelExtractions() {
+        return maxParallelExtractions;
+    }
+
+    @SuppressWarnings("unused")
+    public void setMaxParallelExtractions(int maxParallelExtractions) throws IllegalArgumentException {
+        if (maxParallelExtractions < 1)
+            throw new IllegalArgumentException("maxParallelExtractions must be at least 1!");
+        this.maxParallelExtractions = maxParallelExtractions;
+    }
+
+    public int getMaxExtractionsPerHost() {
+        return maxExtractionsPerHost;
+    }
+
+    @SuppressWarnings("unused")
+    public void setMaxExtractionsPerHost(int maxExtractionsPerHost) throws IllegalArgumentException {
+        if (maxExtractionsPerHost < 1)
+            throw new IllegalArgumentException("maxExtractionsPerHost must be at least 1!");
+        this.maxExtractionsPerHost = maxExtractionsPerHost;
+    }
+
+    /**
+     * @return The executor set through {@link #setNetworkExecutor(Executor)}, or a shared pool that grows with the number of concurrent
+     * downloads
+     */
+    public Executor getNetworkExecutor() {
+        return networkExecutor == null ? DefaultExecutors.NETWORK : networkExecutor;
+    }
+
+    @SuppressWarnings("unused")
+    public void setNetworkExecutor(Executor networkExecutor) {
+        this.networkExecutor = networkExecutor;
+    }
+
+    /**
+     * @return The executor set through {@link #setCpuExecutor(Executor)}, or a shared pool with a thread per processor
+     */
+    public Executor getCpuExecutor() {
+        return cpuExecutor == null ? DefaultExecutors.CPU : cpuExecutor;
+    }
+
+    @SuppressWarnings("unused")
+    public void setCpuExecutor(Executor cpuExecutor) {
+        this.cpuExecutor = cpuExecutor;
+    }
+
+    public ExtractionPipeline getExtractionPipeline() {
+        return extractionPipeline;
+    }
+
+    @SuppressWarnings("unused")
+    public void setExtractionPipeline(ExtractionPipeline extractionPipeline) throws IllegalArgumentException {
+        if (extractionPipeline == null)
+            throw new IllegalArgumentException("extractionPipeline must not be null!");
+        this.extractionPipeline = extractionPipeline;
+    }
+
+    public Set<ArticleField> getWantedFields() {
+        return wantedFields;
+    }
+
+    /**
+     * Only the stages of the pipeline that produce these fields (or fields those stages need) will run, the rest of the article stays
+     * empty. All fields are wanted by default.
+     */
+    @SuppressWarnings("unused")
+    public void setWantedFields(Set<ArticleField> wantedFields) throws IllegalArgumentException {
+        if (wantedFields == null)
+            throw new IllegalArgumentException("wantedFields must not be null!");
+        Set<ArticleField> copy = EnumSet.noneOf(ArticleField.class);
+        copy.addAll(wantedFields);
+        this.wantedFields = Collections.unmodifiableSet(copy);
+    }
+
+    public ExtractionListener getExtractionListener() {
+        return extractionListener;
+    }
+
+    /**
+     * @param extractionListener Gets the metrics of every extraction, {@code null} to stop measuring
+     */
+    @SuppressWarnings("unused")
+    public void setExtractionListener(ExtractionListener extractionListener) {
+        this.extractionListener = extractionListener;
+    }
+
+    public long getExtractionTimeout() {
+        return extractionTimeout;
+    }
+
+    /**
+     * Once an extraction has taken this long, the stages that didn't run yet are skipped and the image search stops, and you get what was
+     * extracted so far, see {@link Article#getSkippedStages()}. A single request can still take up to its own network timeout.
+     *
+     * @param extractionTimeout Time budget of every extraction in milliseconds, 0 for no limit
+     */
+    @SuppressWarnings("unused")
+    public void setExtractionTimeout(long extractionTimeout) throws IllegalArgumentException {
+        if (extractionTimeout < 0)
+            throw new IllegalArgumentException("extractionTimeout must not be negative!");
+        this.extractionTimeout = extractionTimeout;
+    }
+
+    public String getLanguage() {
+        return language;
+    }
+
+    /**
+     * Text is scored by counting stop words, so they have to be in the language of the page. By default that's the language the page
+     * declares in {@code <html lang>}, or English if it doesn't declare any, or there are no stop words for it.
+     *
+     * @param language An ISO 639 code like "de" to treat every page as that language, {@code null} to go with what each page declares
+     */
+    @SuppressWarnings("unused")
+    public void setLanguage(String language) {
+        this.language = language;
+    }
+
+    public String getCacheDirectory() {
+        return cacheDirectory;
+    }
+
+    /**
+     * Shared pools used when no executor is configured, created on first use. Threads are daemons so they never keep the app alive.
+     */
+    private static final class DefaultExecutors {
+
+        static final ExecutorService NETWORK = Executors.newCachedThreadPool(new DaemonThreadFactory("goose-network-"));
+        static final ExecutorService CPU = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                new DaemonThreadFactory("goose-cpu-"));
+    }
+
+    private static final class DaemonThreadFactory implements ThreadFactory {
+
+        private final String namePrefix;
+        private final AtomicInteger count = new AtomicInteger();
+
+        DaemonThreadFactory(String namePrefix) {
+            this.namePrefix = namePrefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, namePrefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+}
@@ -11,12 +11,11 @@
 
 package me.angrybyte.goose;
 
-import android.util.Log;
-
 import org.jsoup.nodes.Attribute;
 import org.jsoup.nodes.Attributes;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
+import org.jsoup.parser.Tag;
 import org.jsoup.select.Elements;
 import org.jsoup.select.Selector;
 
@@ -26,19 +25,22 @@ import java.net.URL;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
-import me.angrybyte.goose.cleaners.DefaultDocumentCleaner;
-import me.angrybyte.goose.cleaners.DocumentCleaner;
 import me.angrybyte.goose.images.BestImageGuesser;
-import me.angrybyte.goose.images.ImageExtractor;
+import me.angrybyte.goose.images.Image;
 import me.angrybyte.goose.network.GooseDownloader;
-import me.angrybyte.goose.outputformatters.DefaultOutputFormatter;
 import me.angrybyte.goose.outputformatters.Entities;
-import me.angrybyte.goose.outputformatters.OutputFormatter;
+import me.angrybyte.goose.platform.Platform;
+import me.angrybyte.goose.scoring.NodeScores;
+import me.angrybyte.goose.scoring.NodeStats;
 import me.angrybyte.goose.texthelpers.ReplaceSequence;
-import me.angrybyte.goose.texthelpers.StopWords;
 import me.angrybyte.goose.texthelpers.StringReplacement;
 import me.angrybyte.goose.texthelpers.StringSplitter;
 import me.angrybyte.goose.texthelpers.WordStats;
@@ -66,22 +68,12 @@ public class ContentExtractor {
     private static final StringSplitter DASH_SPLITTER = new StringSplitter(" - ");
     private static final StringSplitter ARROWS_SPLITTER = new StringSplitter("»");
     private static final StringSplitter COLON_SPLITTER = new StringSplitter(":");
-    private static final StringSplitter SPACE_SPLITTER = new StringSplitter(" ");
 
     private static final Set<String> NO_STRINGS = new HashSet<>(0);
     private static final String A_REL_TAG_SELECTOR = "a[rel=tag], a[href*=/tag/]";
+    private static final String OG_IMAGE_SELECTOR = "meta[property~=og:image]";
 
-    private Configuration config;
-
-    // sets the default cleaner class to prep the HTML for parsing
-    private DocumentCleaner documentCleaner;
-    // the MD5 of the URL we're currently parsing, used to references the images we download to the url so we
-    // can more easily clean up resources when we're done with the page.
-    private String linkHash;
-    // once we have our topNode then we want to format that guy for output to the user
-    private OutputFormatter outputFormatter;
-    private ImageExtractor imageExtractor;
-
+    private final Configuration config;
 
     /**
      * overloaded to accept a custom configuration object
@@ -107,77 +99,192 @@ public class ContentExtractor {
         return performExtraction(urlToCrawl, null, forWebView);
     }
 
-    private Article performExtraction(String urlToCrawl, String rawHtml, boolean forWebView) {
-        urlToCrawl = getUrlToCrawl(urlToCrawl);
-        try {
-            new URL(urlToCrawl);
-            linkHash = md5(urlToCrawl);
-        } catch (MalformedURLException e) {
-            throw new IllegalArgumentException("Invalid URL Passed in: " + urlToCrawl, e);
-        }
+    /**
+     * Only fills in the title, meta description, meta keywords, canonical link, tags and the og:image of the page (as the top image), for
+     * when you need a preview of the link rather than its text. Only the head of the page is downloaded, and nothing is cleaned, scored or
+     * formatted. Tags are usually in the body, so you'll only get them if you pass the html in.
+     *
+     * @param urlToCrawl The url you want the meta data of, makes a network call
+     * @return The article with only the meta data filled in, or {@code null} if the page can't be fetched
+     */
+    public Article extractMetadata(String urlToCrawl) {
+        return extractMetadata(urlToCrawl, null);
+    }
 
-        ParseWrapper parseWrapper = new ParseWrapper();
-        Article article = null;
+    /**
+     * Same as {@link #extractMetadata(String)}, but you can pass in the html you already have.
+     *
+     * @param urlToCrawl The url you want the meta data of
+     * @param html       If you already have the raw html handy you can pass it here to avoid a network call, can be {@code null}
+     */
+    public Article extractMetadata(String urlToCrawl, String html) {
+        ExtractionContext context = createContext(urlToCrawl, html, false);
+        urlToCrawl = context.getUrlToCrawl();
         try {
-            if (rawHtml == null) {
-                rawHtml = GooseDownloader.getHtml(urlToCrawl, true);
+            if (html == null) {
+                html = GooseDownloader.getHead(urlToCrawl, true);
             }
 
-            article = new Article();
-
-            article.setRawHtml(rawHtml);
-
-            Document doc = parseWrapper.parse(rawHtml, urlToCrawl);
+            Article article = new Article();
+            article.setRawHtml(html);
 
-            // before we cleanse, provide consumers with an opportunity to extract the publish date
-            article.setPublishDate(config.getPublishDateExtractor().extract(doc));
+            ParseWrapper parseWrapper = new ParseWrapper();
+            Document doc = parseWrapper.parse(html, urlToCrawl);
 
-            // now allow for any additional data to be extracted
-            article.setAdditionalData(config.getAdditionalDataExtractor().extract(doc));
-
-            // grab the text nodes of any <a ... rel="tag">Tag Name</a> elements
             article.setTags(extractTags(doc));
-
-            // now perform a nice deep cleansing
-            DocumentCleaner documentCleaner = getDocCleaner();
-            doc = documentCleaner.clean(doc);
-
             article.setTitle(getTitle(doc));
             article.setMetaDescription(getMetaDescription(doc));
             article.setMetaKeywords(getMetaKeywords(doc));
             article.setCanonicalLink(getCanonicalLink(doc, urlToCrawl));
             article.setDomain(article.getCanonicalLink());
+            article.setTopImage(getOpenGraphImage(doc, urlToCrawl));
+            return article;
+        } catch (Exception ignored) {
+            return null;
+        }
+    }
 
-            // extract the content of the article
-            article.setTopNode(calculateBestNodeBasedOnClustering(doc));
+    /**
+     * Extracts all of the given URLs on a pool of {@link Configuration#getMaxParallelExtractions()} threads, and streams the articles back
+     * as they complete. The pool is shut down once the batch is drained or closed.
+     *
+     * @param urls       The urls you want to extract the text from, makes a network call for each
+     * @param forWebView true to preserve useful html tags in topNode
+     */
+    public BatchExtraction extractAll(Collection<String> urls, boolean forWebView) {
+        ExecutorService executor = Executors.newFixedThreadPool(config.getMaxParallelExtractions());
+        return new BatchExtraction(this, urls, forWebView, executor, executor, config.getMaxParallelExtractions(),
+                config.getMaxExtractionsPerHost());
+    }
 
-            if (article.getTopNode() != null) {
+    /**
+     * Same as {@link #extractAll(Collection, boolean)}, but runs the extractions on your own executor. The executor is not shut down, and
+     * no more than {@link Configuration#getMaxParallelExtractions()} extractions of this batch are handed to it at once.
+     */
+    @SuppressWarnings("unused")
+    public BatchExtraction extractAll(Collection<String> urls, boolean forWebView, Executor executor) {
+        return new BatchExtraction(this, urls, forWebView, executor, null, config.getMaxParallelExtractions(),
+                config.getMaxExtractionsPerHost());
+    }
+
+    /**
+     * Extracts the article in the background. Downloading the page and probing its images runs on
+     * {@link Configuration#getNetworkExecutor()}, while parsing, cleaning, scoring and formatting runs on
+     * {@link Configuration#getCpuExecutor()}, so each pool can be sized for its own bottleneck.
+     *
+     * @param urlToCrawl The url you want to extract the text from, makes a network call
+     * @param forWebView true to preserve useful html tags in topNode
+     * @return A future of the same article {@link #extractContent(String, boolean)} would return
+     */
+    @SuppressWarnings("unused")
+    public Future<Article> extractContentAsync(String urlToCrawl, boolean forWebView) {
+        return extractContentAsync(urlToCrawl, null, forWebView, null);
+    }
 
-                // extract any movie embeds out from our main article content
-                article.setMovies(extractVideos(article.getTopNode()));
+    /**
+     * Same as {@link #extractContentAsync(String, boolean)}, but also notifies the given callback when the extraction is done.
+     *
+     * @param urlToCrawl The url you want to extract the text from
+     * @param html       If you already have the raw html handy you can pass it here to avoid a network call, can be {@code null}
+     * @param forWebView true to preserve useful html tags in topNode
+     * @param callback   Called on the thread that finished the extraction, can be {@code null}
+     */
+    public Future<Article> extractContentAsync(String urlToCrawl, String html, boolean forWebView, ExtractionCallback callback) {
+        ExtractionContext context = createContext(urlToCrawl, html, forWebView);
+        AsyncExtraction extraction = new AsyncExtraction(this, context, config.getNetworkExecutor(), config.getCpuExecutor(), callback);
+        extraction.start();
+        return extraction;
+    }
 
-                if (config.isEnableImageFetching()) {
-                    imageExtractor = getImageExtractor(urlToCrawl);
-                    article.setTopImage(imageExtractor.getBestImage(doc, article.getTopNode()));
+    /**
+     * Extracts a single article. All state of this extraction lives in its {@link ExtractionContext}, so this is safe to call from many
+     * threads at once on the same {@link ContentExtractor}.
+     */
+    private Article performExtraction(String urlToCrawl, String rawHtml, boolean forWebView) {
+        ExtractionContext context = createContext(urlToCrawl, rawHtml, forWebView);
+        try {
+            runStage(context, DefaultStages.DOWNLOAD);
+            runStage(context, DefaultStages.PARSE);
+            for (ExtractionStage stage : context.getStages()) {
+                if (!skipIfOutOfTime(context, stage)) {
+                    runStage(context, stage);
                 }
+            }
+        } catch (Exception ignored) {
+        } finally {
+            finishExtraction(context);
+        }
+
+        return context.getArticle();
+    }
 
-                // grab siblings and remove high link density elements
-                cleanupNode(article.getTopNode());
-                outputFormatter = getOutputFormatter();
+    private ExtractionContext createContext(String urlToCrawl, String rawHtml, boolean forWebView) {
+        urlToCrawl = getUrlToCrawl(urlToCrawl);
+        try {
+            new URL(urlToCrawl);
+            return new ExtractionContext(config, urlToCrawl, md5(urlToCrawl), rawHtml, forWebView);
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException("Invalid URL Passed in: " + urlToCrawl, e);
+        }
+    }
 
-                // if forWebView is enabled, then process topNode such that necessary html tags are not removed.
-                if(forWebView)
-                    article.setCleanedArticleText(outputFormatter.getFormattedTextForWebView(article.getTopNode()));
-                else
-                    article.setCleanedArticleText(outputFormatter.getFormattedText(article.getTopNode()));
-            }
+    /**
+     * Runs one stage of the pipeline, if it has anything to do for this extraction, and measures it if somebody listens.
+     */
+    void runStage(ExtractionContext context, ExtractionStage stage) throws Exception {
+        if (!stage.shouldProcess(context)) {
+            return;
+        }
 
-            // cleans up all the temp images that we've downloaded
-            releaseResources();
-        } catch (Exception ignored) {
+        ExtractionMetrics metrics = context.getMetrics();
+        if (metrics == null) {
+            stage.process(context);
+            return;
         }
 
-        return article;
+        ExtractionMetrics.StageMetrics stageMetrics = metrics.startStage(stage.getName());
+        try {
+            stage.process(context);
+        } catch (Exception e) {
+            metrics.setFailure(stage.getName(), e);
+            throw e;
+        } finally {
+            metrics.finishStage(stageMetrics);
+        }
+    }
+
+    /**
+     * Once the extraction is out of time, notes the stage as skipped instead of running it
+     *
+     * @return true if the stage was skipped
+     */
+    boolean skipIfOutOfTime(ExtractionContext context, ExtractionStage stage) {
+        if (!context.getDeadline().isExpired()) {
+            return false;
+        }
+        context.getArticle().getSkippedStages().add(stage.getName());
+        return true;
+    }
+
+    /**
+     * Cleans up after an extraction, whether it worked or not, and reports its metrics
+     */
+    void finishExtraction(ExtractionContext context) {
+        // cleans up all the temp images that we've downloaded
+        releaseResources(context);
+
+        ExtractionMetrics metrics = context.getMetrics();
+        ExtractionListener listener = config.getExtractionListener();
+        if (metrics == null || listener == null) {
+            return;
+        }
+
+        metrics.setImageRequestCount(context.getImageRequestCount());
+        try {
+            listener.onExtractionFinished(metrics);
+        } catch (RuntimeException e) {
+            Platform.getLogger().warn(ContentExtractor.class.getName(), "Extraction listener failed", e);
+        }
     }
 
     /**
@@ -216,7 +323,7 @@ public class ContentExtractor {
         return buf.toString();
     }
 
-    private Set<String> extractTags(Element node) {
+    static Set<String> extractTags(Element node) {
         if (node.children().size() == 0)
             return NO_STRINGS;
 
@@ -246,35 +353,10 @@ public class ContentExtractor {
         return finalURL;
     }
 
-    private OutputFormatter getOutputFormatter() {
-        if (outputFormatter == null) {
-            return new DefaultOutputFormatter();
-        } else {
-            return outputFormatter;
-        }
-
-    }
-
-    private ImageExtractor getImageExtractor(String urlToCrawl) {
-        if (imageExtractor == null) {
-            return new BestImageGuesser(config, urlToCrawl);
-        } else {
-            return imageExtractor;
-        }
-
-    }
-
-    private DocumentCleaner getDocCleaner() {
-        if (this.documentCleaner == null) {
-            this.documentCleaner = new DefaultDocumentCleaner();
-        }
-        return this.documentCleaner;
-    }
-
     /**
      * Attempts to grab titles from the html pages, lots of sites use different delimiters for titles so we'll try and do our best guess.
      */
-    private String getTitle(Document doc) {
+    static String getTitle(Document doc) {
         String title = string.empty;
 
         try {
@@ -366,25 +448,23 @@ public class ContentExtractor {
     /**
      * Based on a delimiter in the title take the longest piece or do some custom logic based on the site
      */
-    private String doTitleSplits(String title, StringSplitter splitter) {
-        int largetTextLen = 0;
-        int largeTextIndex = 0;
-
-        String[] titlePieces = splitter.split(title);
+    private static String doTitleSplits(String title, StringSplitter splitter) {
+        int largestStart = 0;
+        int largestEnd = 0;
 
         // take the largest split
-        for (int i = 0; i < titlePieces.length; i++) {
-            String current = titlePieces[i];
-            if (current.length() > largetTextLen) {
-                largetTextLen = current.length();
-                largeTextIndex = i;
+        StringSplitter.Pieces titlePieces = splitter.pieces(title);
+        while (titlePieces.next()) {
+            if (titlePieces.end() - titlePieces.start() > largestEnd - largestStart) {
+                largestStart = titlePieces.start();
+                largestEnd = titlePieces.end();
             }
         }
 
-        return TITLE_REPLACEMENTS.replaceAll(titlePieces[largeTextIndex]).trim();
+        return TITLE_REPLACEMENTS.replaceAll(title.substring(largestStart, largestEnd)).trim();
     }
 
-    private String getMetaContent(Document doc, String metaName) {
+    private static String getMetaContent(Document doc, String metaName) {
         Elements meta = doc.select(metaName);
         if (meta.size() > 0) {
             String content = meta.first().attr("content");
@@ -393,24 +473,38 @@ public class ContentExtractor {
         return string.empty;
     }
 
+    /**
+     * The language the page says it's in, from the html tag's lang attribute or the content language meta tag, empty if it doesn't say
+     */
+    static String getLanguage(Document doc) {
+        Element html = doc.children().first();
+        if (html != null) {
+            String lang = html.attr("lang").trim();
+            if (!lang.isEmpty()) {
+                return lang;
+            }
+        }
+        return getMetaContent(doc, "meta[http-equiv=content-language]");
+    }
+
     /**
      * If the article has meta description set in the source, use that
      */
-    private String getMetaDescription(Document doc) {
+    static String getMetaDescription(Document doc) {
         return getMetaContent(doc, "meta[name=description]");
     }
 
     /**
      * If the article has meta keywords set in the source, use that
      */
-    private String getMetaKeywords(Document doc) {
+    static String getMetaKeywords(Document doc) {
         return getMetaContent(doc, "meta[name=keywords]");
     }
 
     /**
      * If the article has meta canonical link set in the url
      */
-    private String getCanonicalLink(Document doc, String baseUrl) {
+    static String getCanonicalLink(Document doc, String baseUrl) {
         Elements meta = doc.select("link[rel=canonical]");
         if (meta.size() > 0) {
             String href = meta.first().attr("href");
@@ -420,7 +514,22 @@ public class ContentExtractor {
         }
     }
 
-    @SuppressWarnings("unused")
+    /**
+     * Returns the og:image of the page without downloading it, or {@code null} if it doesn't have one
+     */
+    private static Image getOpenGraphImage(Document doc, String baseUrl) {
+        Element meta = doc.select(OG_IMAGE_SELECTOR).first();
+        if (meta == null || meta.attr("content").length() < 1) {
+            return null;
+        }
+
+        Image image = new Image();
+        image.setImageSrc(BestImageGuesser.buildImagePath(baseUrl, meta.attr("content")));
+        image.setImageExtractionType("opengraph");
+        image.setConfidenceScore(100);
+        return image;
+    }
+
     private String getDomain(String canonicalLink) {
         try {
             return new URL(canonicalLink).getHost();
@@ -434,24 +543,21 @@ public class ContentExtractor {
      * number of consecutive paragraphs together, which should form the cluster of text that this node is around also store on how high up
      * the paragraphs are, comments are usually at the bottom and should get a lower score
      */
-    private Element calculateBestNodeBasedOnClustering(Document doc) {
+    static Element calculateBestNodeBasedOnClustering(Document doc, NodeScores scores, NodeStats stats) {
         Element topNode = null;
 
         // grab all the paragraph elements on the page to start to inspect the likely hood of them being good peeps
-        ArrayList<Element> nodesToCheck = getNodesToCheck(doc);
+        ArrayList<Element> nodesToCheck = getNodesToCheck(doc, stats);
 
         double startingBoost = 1.0;
         int cnt = 0;
         int i = 0;
 
-        // holds all the parents of the nodes we're checking
-        Set<Element> parentNodes = new HashSet<>();
         ArrayList<Element> nodesWithText = new ArrayList<>();
 
         for (Element node : nodesToCheck) {
-            String nodeText = node.text();
-            WordStats wordStats = StopWords.getStopWordCount(nodeText);
-            boolean highLinkDensity = isHighLinkDensity(node);
+            WordStats wordStats = stats.getWordStats(node);
+            boolean highLinkDensity = isHighLinkDensity(node, stats);
 
             if (wordStats.getStopWordCount() > 2 && !highLinkDensity) {
 
@@ -471,7 +577,7 @@ public class ContentExtractor {
             // and giving lower, even negative scores to those who appear lower which could be commenty stuff
 
             float boostScore = 0;
-            if (isOkToBoost(node)) {
+            if (isOkToBoost(node, stats)) {
                 if (cnt >= 0) {
                     boostScore = (float) ((1.0 / startingBoost) * 50);
                     startingBoost++;
@@ -492,21 +598,13 @@ public class ContentExtractor {
                 }
             }
 
-            String nodeText = node.text();
-            WordStats wordStats = StopWords.getStopWordCount(nodeText);
+            WordStats wordStats = stats.getWordStats(node);
             int upScore = (int) (wordStats.getStopWordCount() + boostScore);
-            updateScore(node.parent(), upScore);
-            updateScore(node.parent().parent(), upScore / 2);
-            updateNodeCount(node.parent(), 1);
-            updateNodeCount(node.parent().parent(), 1);
-
-            if (!parentNodes.contains(node.parent())) {
-                parentNodes.add(node.parent());
-            }
-
-            if (!parentNodes.contains(node.parent().parent())) {
-                parentNodes.add(node.parent().parent());
-            }
+            // the score table also holds all the parents of the nodes we're checking
+            scores.addScore(node.parent(), upScore);
+            scores.addScore(node.parent().parent(), upScore / 2);
+            scores.addNodeCount(node.parent(), 1);
+            scores.addNodeCount(node.parent().parent(), 1);
 
             cnt++;
             i++;
@@ -515,8 +613,9 @@ public class ContentExtractor {
         // now let's find the parent node who scored the highest
 
         int topNodeScore = 0;
-        for (Element e : parentNodes) {
-            int score = getScore(e);
+        for (int j = 0; j < scores.size(); j++) {
+            Element e = scores.getNode(j);
+            int score = scores.getScore(e);
             if (score > topNodeScore) {
                 topNode = e;
                 topNodeScore = score;
@@ -533,41 +632,28 @@ public class ContentExtractor {
     /**
      * Returns a list of nodes we want to search on like paragraphs and tables
      */
-    private ArrayList<Element> getNodesToCheck(Document doc) {
-        ArrayList<Element> nodesToCheck = new ArrayList<>();
-
-        nodesToCheck.addAll(doc.getElementsByTag("p"));
-        nodesToCheck.addAll(doc.getElementsByTag("pre"));
-        nodesToCheck.addAll(doc.getElementsByTag("td"));
-        return nodesToCheck;
-
+    private static ArrayList<Element> getNodesToCheck(Document doc, NodeStats stats) {
+        // one walk finds them all, and measures the text and the links of every element on the way
+        return stats.scan(doc, "p", "pre", "td");
     }
 
     /**
      * Checks the density of links within a node, is there not much text and most of it contains linky shit? if so it's no good
      */
-    private static boolean isHighLinkDensity(Element e) {
+    private static boolean isHighLinkDensity(Element e, NodeStats stats) {
 
-        Elements links = e.getElementsByTag("a");
+        int links = stats.getLinkCount(e);
 
-        if (links.size() == 0) {
+        if (links == 0) {
             return false;
         }
 
-        String text = e.text().trim();
-        String[] words = SPACE_SPLITTER.split(text);
-        float numberOfWords = words.length;
+        float numberOfWords = stats.getSpaceSeparatedWordCount(e);
 
-        // let's loop through all the links and calculate the number of words that make up the links
-        StringBuilder sb = new StringBuilder();
-        for (Element link : links) {
-            sb.append(link.text());
-        }
-        String linkText = sb.toString();
-        String[] linkWords = SPACE_SPLITTER.split(linkText);
-        float numberOfLinkWords = linkWords.length;
+        // the number of words that make up all the links together
+        float numberOfLinkWords = stats.getLinkWordCount(e);
 
-        float numberOfLinks = links.size();
+        float numberOfLinks = links;
 
         float linkDivisor = numberOfLinkWords / numberOfWords;
         float score = linkDivisor * numberOfLinks;
@@ -580,7 +666,7 @@ public class ContentExtractor {
      * node that it should be connected to other paragraphs, at least for the first n paragraphs so we'll want to make sure that the next
      * sibling is a paragraph and has at least some substatial weight to it
      */
-    private boolean isOkToBoost(Element node) {
+    private static boolean isOkToBoost(Element node, NodeStats stats) {
 
         int stepsAway = 0;
 
@@ -592,8 +678,7 @@ public class ContentExtractor {
                     return false;
                 }
 
-                String paraText = sibling.text();
-                WordStats wordStats = StopWords.getStopWordCount(paraText);
+                WordStats wordStats = stats.getWordStats(sibling);
                 if (wordStats.getStopWordCount() > 5) {
                     return true;
                 }
@@ -609,61 +694,10 @@ public class ContentExtractor {
         return false;
     }
 
-    /**
-     * Adds a score to the gravityScore Attribute we put on divs we'll get the current score then add the score we're passing in to the
-     * current
-     *
-     * @param addToScore - the score to add to the node
-     */
-    private void updateScore(Element node, int addToScore) {
-        int currentScore;
-        try {
-            String scoreString = node.attr("gravityScore");
-            currentScore = string.isNullOrEmpty(scoreString) ? 0 : Integer.parseInt(scoreString);
-        } catch (NumberFormatException e) {
-            currentScore = 0;
-        }
-        int newScore = currentScore + addToScore;
-        node.attr("gravityScore", Integer.toString(newScore));
-
-    }
-
-    /**
-     * Stores how many decent nodes are under a parent node
-     */
-    private void updateNodeCount(Element node, int addToCount) {
-        int currentScore;
-        try {
-            String countString = node.attr("gravityNodes");
-            currentScore = string.isNullOrEmpty(countString) ? 0 : Integer.parseInt(countString);
-        } catch (NumberFormatException e) {
-            currentScore = 0;
-        }
-        int newScore = currentScore + addToCount;
-        node.attr("gravityNodes", Integer.toString(newScore));
-
-    }
-
-    /**
-     * Returns the gravityScore as an integer from this node
-     */
-    private int getScore(Element node) {
-        if (node == null)
-            return 0;
-        try {
-            String grvScoreString = node.attr("gravityScore");
-            if (string.isNullOrEmpty(grvScoreString))
-                return 0;
-            return Integer.parseInt(grvScoreString);
-        } catch (NumberFormatException e) {
-            return 0;
-        }
-    }
-
     /**
      * Pulls out videos we like
      */
-    private ArrayList<Element> extractVideos(Element node) {
+    static ArrayList<Element> extractVideos(Element node) {
         ArrayList<Element> candidates = new ArrayList<>();
         ArrayList<Element> goodMovies = new ArrayList<>();
         try {
@@ -701,16 +735,17 @@ public class ContentExtractor {
     /**
      * Remove any divs that looks like non-content, clusters of links, or paras with no gusto
      */
-    private Element cleanupNode(Element node) {
-        node = addSiblings(node);
+    static Element cleanupNode(Element node, NodeScores scores, NodeStats stats) {
+        node = addSiblings(node, stats);
 
         Elements nodes = node.children();
         for (Element e : nodes) {
             if (e.tagName().equals("p")) {
                 continue;
             }
-            boolean highLinkDensity = isHighLinkDensity(e);
+            boolean highLinkDensity = isHighLinkDensity(e, stats);
             if (highLinkDensity) {
+                stats.invalidate(e);
                 e.remove();
                 continue;
             }
@@ -720,7 +755,8 @@ public class ContentExtractor {
             Elements subParagraphs = e.getElementsByTag("p");
 
             for (Element p : subParagraphs) {
-                if (p.text().length() < 25) {
+                if (stats.getTextLength(p) < 25) {
+                    stats.invalidate(p);
                     p.remove();
                 }
             }
@@ -730,16 +766,18 @@ public class ContentExtractor {
             // first let's remove any element that now doesn't have any p tags at all
             Elements subParagraphs2 = e.getElementsByTag("p");
             if (subParagraphs2.size() == 0 && !e.tagName().equals("td")) {
+                stats.invalidate(e);
                 e.remove();
                 continue;
             }
 
             //if this node has a decent enough gravityScore we should keep it as well, might be content
-            int topNodeScore = getScore(node);
-            int currentNodeScore = getScore(e);
+            int topNodeScore = scores.getScore(node);
+            int currentNodeScore = scores.getScore(e);
             float thresholdScore = (float) (topNodeScore * .08);
             if (currentNodeScore < thresholdScore) {
                 if (!e.tagName().equals("td")) {
+                    stats.invalidate(e);
                     e.remove();
                 }
             }
@@ -752,12 +790,13 @@ public class ContentExtractor {
     /**
      * Adds any siblings that may have a decent score to this node
      */
-    private Element addSiblings(Element node) {
-        int baselineScoreForSiblingParagraphs = getBaselineScoreForSiblings(node);
+    private static Element addSiblings(Element node, NodeStats stats) {
+        int baselineScoreForSiblingParagraphs = getBaselineScoreForSiblings(node, stats);
 
         Element currentSibling = node.previousElementSibling();
         while (currentSibling != null) {
             if (currentSibling.tagName().equals("p")) {
+                stats.invalidate(node);
                 node.child(0).before(currentSibling.outerHtml());
                 currentSibling = currentSibling.previousElementSibling();
                 continue;
@@ -771,12 +810,23 @@ public class ContentExtractor {
                 continue;
             }
             for (Element firstParagraph : potentialParagraphs) {
-                WordStats wordStats = StopWords.getStopWordCount(firstParagraph.text());
+                WordStats wordStats = stats.getWordStats(firstParagraph);
 
                 int paragraphScore = wordStats.getStopWordCount();
 
                 if ((float) (baselineScoreForSiblingParagraphs * .30) < paragraphScore) {
-                    node.child(insertedSiblings).before("<p>" + firstParagraph.text() + "<p>");
+                    stats.invalidate(node);
+                    String text = firstParagraph.text();
+                    if (text.indexOf('<') >= 0 || text.indexOf('&') >= 0) {
+                        // the text was always parsed as html, keep doing that when it makes a difference
+                        node.child(insertedSiblings).before("<p>" + text + "<p>");
+                    } else {
+                        // same as the html above: the paragraph, and an empty one after it
+                        Element paragraph = new Element(Tag.valueOf("p"), node.baseUri());
+                        paragraph.appendText(text);
+                        node.child(insertedSiblings).before(paragraph);
+                        paragraph.after(new Element(Tag.valueOf("p"), node.baseUri()));
+                    }
                     insertedSiblings++;
                 }
 
@@ -793,16 +843,15 @@ public class ContentExtractor {
      * those paragraphs it would be unfair. So we need to normalize the score based on the average scoring of the paragraphs within the top
      * node. For example if our total score of 10 paragraphs was 1000 but each had an average value of 100 then 100 should be our base.
      */
-    private int getBaselineScoreForSiblings(Element topNode) {
+    private static int getBaselineScoreForSiblings(Element topNode, NodeStats stats) {
         int base = 100000;
         int numberOfParagraphs = 0;
         int scoreOfParagraphs = 0;
 
         Elements nodesToCheck = topNode.getElementsByTag("p");
         for (Element node : nodesToCheck) {
-            String nodeText = node.text();
-            WordStats wordStats = StopWords.getStopWordCount(nodeText);
-            boolean highLinkDensity = isHighLinkDensity(node);
+            WordStats wordStats = stats.getWordStats(node);
+            boolean highLinkDensity = isHighLinkDensity(node, stats);
 
             if (wordStats.getStopWordCount() > 2 && !highLinkDensity) {
                 numberOfParagraphs++;
@@ -821,20 +870,30 @@ public class ContentExtractor {
      * Cleans up any temp files we have laying around like temp images removes any image in the temp dir that starts with the linkHash of
      * the url we parsed
      */
-    public void releaseResources() {
+    void releaseResources(ExtractionContext context) {
         File dir = new File(config.getCacheDirectory());
         String[] children = dir.list();
+        String prefix = context.getLinkHash() + "_";
 
         if (children != null) {
             for (String filename : children) {
-                if (filename.startsWith(this.linkHash)) {
+                if (filename.startsWith(prefix)) {
                     File f = new File(dir.getAbsolutePath() + "/" + filename);
                     if (!f.delete()) {
-                        Log.e(ContentExtractor.class.getName(), "Unable to remove temp file: " + filename);
+                        Platform.getLogger().error(ContentExtractor.class.getName(), "Unable to remove temp file: " + filename, null);
                     }
                 }
             }
         }
     }
 
+    /**
+     * Temp files are now removed at the end of every extraction, so there is nothing left to release here.
+     *
+     * @deprecated resources are released automatically once {@link #extractContent(String, String, boolean)} returns
+     */
+    @Deprecated
+    public void releaseResources() {
+    }
+
 }
@@ -0,0 +1,37 @@
+package me.angrybyte.goose;
+
+/**
+ * The point in time an extraction has to be done by, see {@link Configuration#setExtractionTimeout(long)}. Long running loops check it
+ * between network calls, and the pipeline checks it between stages.
+ */
+public final class Deadline {
+
+    /**
+     * Never expires, used when there's no time budget
+     */
+    public static final Deadline NONE = new Deadline(0, false);
+
+    private final long expiresAtNanos;
+    private final boolean limited;
+
+    private Deadline(long expiresAtNanos, boolean limited) {
+        this.expiresAtNanos = expiresAtNanos;
+        this.limited = limited;
+    }
+
+    /**
+     * @param timeoutMillis How long from now until the deadline, 0 or less for no deadline
+     */
+    public static Deadline after(long timeoutMillis) {
+        if (timeoutMillis <= 0) {
+            return NONE;
+        }
+        return new Deadline(System.nanoTime() + timeoutMillis * 1000000L, true);
+    }
+
+    public boolean isExpired() {
+        // compared by difference, nanoTime can overflow
+        return limited && System.nanoTime() - expiresAtNanos >= 0;
+    }
+
+}
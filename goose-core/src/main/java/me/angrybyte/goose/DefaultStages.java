@@ -0,0 +1,259 @@
+package me.angrybyte.goose;
+
+import org.jsoup.nodes.Document;
+
+import me.angrybyte.goose.cleaners.DefaultDocumentCleaner;
+import me.angrybyte.goose.cleaners.DocumentCleaner;
+import me.angrybyte.goose.images.BestImageGuesser;
+import me.angrybyte.goose.network.GooseDownloader;
+import me.angrybyte.goose.outputformatters.OutputFormatter;
+import me.angrybyte.goose.texthelpers.StopWords;
+
+import static me.angrybyte.goose.ArticleField.ADDITIONAL_DATA;
+import static me.angrybyte.goose.ArticleField.CANONICAL_LINK;
+import static me.angrybyte.goose.ArticleField.CLEANED_ARTICLE_TEXT;
+import static me.angrybyte.goose.ArticleField.DOMAIN;
+import static me.angrybyte.goose.ArticleField.META_DESCRIPTION;
+import static me.angrybyte.goose.ArticleField.META_KEYWORDS;
+import static me.angrybyte.goose.ArticleField.MOVIES;
+import static me.angrybyte.goose.ArticleField.PUBLISH_DATE;
+import static me.angrybyte.goose.ArticleField.TAGS;
+import static me.angrybyte.goose.ArticleField.TITLE;
+import static me.angrybyte.goose.ArticleField.TOP_IMAGE;
+import static me.angrybyte.goose.ArticleField.TOP_NODE;
+
+/**
+ * The stages of {@link ExtractionPipeline#createDefault()}, the work itself is still done by {@link ContentExtractor}
+ */
+final class DefaultStages {
+
+    /**
+     * Fetches the page unless we already have its html, and starts the article
+     */
+    static final ExtractionStage DOWNLOAD = new ExtractionStage(ExtractionPipeline.STAGE_DOWNLOAD) {
+        @Override
+        public void process(ExtractionContext context) throws Exception {
+            String rawHtml = context.getSuppliedHtml();
+            if (rawHtml == null) {
+                rawHtml = GooseDownloader.getHtml(context.getUrlToCrawl(), true);
+            }
+
+            Article article = new Article();
+            article.setRawHtml(rawHtml);
+            context.setArticle(article);
+
+            if (context.getMetrics() != null) {
+                context.getMetrics().setRawHtmlSize(rawHtml.length());
+            }
+        }
+    };
+
+    /**
+     * Parses the page, the pipeline takes it from here
+     */
+    static final ExtractionStage PARSE = new ExtractionStage(ExtractionPipeline.STAGE_PARSE) {
+        @Override
+        public void process(ExtractionContext context) throws Exception {
+            ParseWrapper parseWrapper = new ParseWrapper();
+            Document doc = parseWrapper.parse(context.getArticle().getRawHtml(), context.getUrlToCrawl());
+            context.setDocument(doc);
+
+            String language = context.getConfig().getLanguage();
+            if (language == null) {
+                language = ContentExtractor.getLanguage(doc);
+            }
+            context.setStopWords(StopWords.forLanguage(language));
+
+            if (context.getMetrics() != null) {
+                context.getMetrics().setNodeCount(doc.getAllElements().size());
+            }
+        }
+    };
+
+    private DefaultStages() {
+    }
+
+    /**
+     * Before we cleanse, provide consumers with an opportunity to extract the publish date
+     */
+    static final class PublishDate extends ExtractionStage {
+
+        PublishDate() {
+            super(ExtractionPipeline.STAGE_PUBLISH_DATE, PUBLISH_DATE);
+        }
+
+        @Override
+        public void process(ExtractionContext context) {
+            Document doc = context.getDocument();
+            context.getArticle().setPublishDate(context.getConfig().getPublishDateExtractor().extract(doc));
+        }
+    }
+
+    /**
+     * Now allow for any additional data to be extracted
+     */
+    static final class AdditionalData extends ExtractionStage {
+
+        AdditionalData() {
+            super(ExtractionPipeline.STAGE_ADDITIONAL_DATA, ADDITIONAL_DATA);
+        }
+
+        @Override
+        public void process(ExtractionContext context) {
+            Document doc = context.getDocument();
+            context.getArticle().setAdditionalData(context.getConfig().getAdditionalDataExtractor().extract(doc));
+        }
+    }
+
+    /**
+     * Grabs the text nodes of any <a ... rel="tag">Tag Name</a> elements
+     */
+    static final class Tags extends ExtractionStage {
+
+        Tags() {
+            super(ExtractionPipeline.STAGE_TAGS, TAGS);
+        }
+
+        @Override
+        public void process(ExtractionContext context) {
+            context.getArticle().setTags(ContentExtractor.extractTags(context.getDocument()));
+        }
+    }
+
+    /**
+     * Now perform a nice deep cleansing, the top node is looked for in what's left
+     */
+    static final class Clean extends ExtractionStage {
+
+        // the default cleaner class that preps the HTML for parsing, it's stateless so all extractions can share it
+        private final DocumentCleaner documentCleaner = new DefaultDocumentCleaner();
+
+        Clean() {
+            super(ExtractionPipeline.STAGE_CLEAN, TOP_NODE);
+        }
+
+        @Override
+        public void process(ExtractionContext context) {
+            context.setDocument(documentCleaner.clean(context.getDocument()));
+        }
+    }
+
+    /**
+     * Title, meta description and keywords, canonical link and domain
+     */
+    static final class Metadata extends ExtractionStage {
+
+        Metadata() {
+            super(ExtractionPipeline.STAGE_METADATA, TITLE, META_DESCRIPTION, META_KEYWORDS, CANONICAL_LINK, DOMAIN);
+        }
+
+        @Override
+        public void process(ExtractionContext context) {
+            Document doc = context.getDocument();
+            Article article = context.getArticle();
+            article.setTitle(ContentExtractor.getTitle(doc));
+            article.setMetaDescription(ContentExtractor.getMetaDescription(doc));
+            article.setMetaKeywords(ContentExtractor.getMetaKeywords(doc));
+            article.setCanonicalLink(ContentExtractor.getCanonicalLink(doc, context.getUrlToCrawl()));
+            article.setDomain(article.getCanonicalLink());
+        }
+    }
+
+    /**
+     * Extracts the content of the article
+     */
+    static final class TopNode extends ExtractionStage {
+
+        TopNode() {
+            super(ExtractionPipeline.STAGE_TOP_NODE, TOP_NODE);
+        }
+
+        @Override
+        public void process(ExtractionContext context) {
+            context.getArticle().setTopNode(ContentExtractor.calculateBestNodeBasedOnClustering(context.getDocument(),
+                    context.getNodeScores(), context.getNodeStats()));
+        }
+    }
+
+    /**
+     * Extracts any movie embeds out from our main article content
+     */
+    static final class Videos extends ExtractionStage {
+
+        Videos() {
+            super(ExtractionPipeline.STAGE_VIDEOS, fields(MOVIES), fields(TOP_NODE));
+        }
+
+        @Override
+        public boolean shouldProcess(ExtractionContext context) {
+            return context.getArticle().getTopNode() != null;
+        }
+
+        @Override
+        public void process(ExtractionContext context) {
+            Article article = context.getArticle();
+            article.setMovies(ContentExtractor.extractVideos(article.getTopNode()));
+        }
+    }
+
+    /**
+     * Downloads the images around the top node to pick the best one
+     */
+    static final class TopImage extends ExtractionStage {
+
+        TopImage() {
+            super(ExtractionPipeline.STAGE_TOP_IMAGE, fields(TOP_IMAGE), fields(TOP_NODE));
+        }
+
+        @Override
+        public boolean isNetworkBound() {
+            return true;
+        }
+
+        @Override
+        public boolean shouldProcess(ExtractionContext context) {
+            return context.getConfig().isEnableImageFetching() && context.getArticle().getTopNode() != null;
+        }
+
+        @Override
+        public void process(ExtractionContext context) throws Exception {
+            Article article = context.getArticle();
+            BestImageGuesser imageExtractor = context.getImageExtractor();
+            article.setTopImage(imageExtractor.getBestImage(context.getDocument(), article.getTopNode()));
+            if (imageExtractor.isTimedOut()) {
+                article.getSkippedStages().add(getName());
+            }
+        }
+    }
+
+    /**
+     * Cleans up the top node and formats its text
+     */
+    static final class Format extends ExtractionStage {
+
+        Format() {
+            super(ExtractionPipeline.STAGE_FORMAT, fields(CLEANED_ARTICLE_TEXT), fields(TOP_NODE));
+        }
+
+        @Override
+        public boolean shouldProcess(ExtractionContext context) {
+            return context.getArticle().getTopNode() != null;
+        }
+
+        @Override
+        public void process(ExtractionContext context) {
+            Article article = context.getArticle();
+
+            // grab siblings and remove high link density elements
+            ContentExtractor.cleanupNode(article.getTopNode(), context.getNodeScores(), context.getNodeStats());
+            OutputFormatter outputFormatter = context.getOutputFormatter();
+
+            // if forWebView is enabled, then process topNode such that necessary html tags are not removed.
+            if (context.isForWebView())
+                article.setCleanedArticleText(outputFormatter.getFormattedTextForWebView(article.getTopNode()));
+            else
+                article.setCleanedArticleText(outputFormatter.getFormattedText(article.getTopNode()));
+        }
+    }
+
+}
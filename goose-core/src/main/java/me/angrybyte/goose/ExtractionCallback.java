@@ -0,0 +1,16 @@
+package me.angrybyte.goose;
+
+/**
+ * Gets notified when an extraction started with {@link ContentExtractor#extractContentAsync(String, String, boolean, ExtractionCallback)}
+ * is done. It is called on the worker thread that finished the extraction, so hop to your own thread (like the UI thread) if needed.
+ */
+public interface ExtractionCallback {
+
+    /**
+     * @param url     The url that was extracted
+     * @param article The extracted article, or {@code null} if the page couldn't be loaded - same as
+     *                {@link ContentExtractor#extractContent(String, boolean)}
+     */
+    void onArticleExtracted(String url, Article article);
+
+}
@@ -0,0 +1,199 @@
+/**
+ * Licensed to Gravity.com under one or more contributor license agreements.  See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Gravity.com licenses this file to you under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package me.angrybyte.goose;
+
+import org.jsoup.nodes.Document;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import me.angrybyte.goose.images.BestImageGuesser;
+import me.angrybyte.goose.outputformatters.DefaultOutputFormatter;
+import me.angrybyte.goose.outputformatters.OutputFormatter;
+import me.angrybyte.goose.scoring.NodeScores;
+import me.angrybyte.goose.scoring.NodeStats;
+import me.angrybyte.goose.texthelpers.StopWords;
+
+/**
+ * Holds everything that belongs to a single extraction (one URL), so that a single {@link ContentExtractor} can be shared by many threads.
+ * A new context is created for every call and is never handed to another extraction. {@link ExtractionStage}s read the document from it
+ * and fill in its article.
+ */
+public class ExtractionContext {
+
+    /**
+     * Makes temp image names unique per extraction, so concurrent extractions of the same URL don't delete each other's images
+     */
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private final Configuration config;
+
+    /**
+     * the url we're currently parsing, after the escaped fragment fixes
+     */
+    private final String urlToCrawl;
+
+    /**
+     * the MD5 of the URL we're currently parsing, used to references the images we download to the url so we can more easily clean up
+     * resources when we're done with the page.
+     */
+    private final String linkHash;
+
+    /**
+     * true to preserve useful html tags in topNode
+     */
+    private final boolean forWebView;
+
+    // the html the caller already had, null if we need to download it
+    private final String suppliedHtml;
+
+    // the stages of the configured pipeline that produce something we want
+    private final List<ExtractionStage> stages;
+
+    // the article we're filling in, created once the html is downloaded
+    private Article article;
+
+    // the parsed and cleaned document, kept between the extraction phases
+    private Document document;
+
+    // gravity scores of the nodes we scored, handed to the output formatter
+    private final NodeScores nodeScores = new NodeScores();
+
+    // the stop words of the page's language, known once the page is parsed
+    private StopWords stopWords = StopWords.forLanguage(null);
+
+    // text lengths and word stats of the nodes we looked at, shared by the scorer and the output formatter
+    private NodeStats nodeStats;
+
+    // once we have our topNode then we want to format that guy for output to the user
+    private OutputFormatter outputFormatter;
+    private BestImageGuesser imageExtractor;
+
+    // only measured when somebody listens
+    private final ExtractionMetrics metrics;
+
+    // when we give up and return what we have, counted from the start of the extraction
+    private final Deadline deadline;
+
+    ExtractionContext(Configuration config, String urlToCrawl, String linkHash, String suppliedHtml, boolean forWebView) {
+        this.config = config;
+        this.urlToCrawl = urlToCrawl;
+        this.linkHash = linkHash + "-" + SEQUENCE.incrementAndGet();
+        this.suppliedHtml = suppliedHtml;
+        this.forWebView = forWebView;
+        this.stages = config.getExtractionPipeline().plan(config.getWantedFields());
+        this.metrics = config.getExtractionListener() == null ? null : new ExtractionMetrics(urlToCrawl);
+        this.deadline = Deadline.after(config.getExtractionTimeout());
+    }
+
+    public Configuration getConfig() {
+        return config;
+    }
+
+    /**
+     * @return The url we're extracting, after the escaped fragment fixes
+     */
+    public String getUrlToCrawl() {
+        return urlToCrawl;
+    }
+
+    String getLinkHash() {
+        return linkHash;
+    }
+
+    /**
+     * @return true to preserve useful html tags in topNode
+     */
+    public boolean isForWebView() {
+        return forWebView;
+    }
+
+    String getSuppliedHtml() {
+        return suppliedHtml;
+    }
+
+    /**
+     * @return When this extraction runs out of its time budget, {@link Deadline#NONE} if it has none
+     */
+    public Deadline getDeadline() {
+        return deadline;
+    }
+
+    List<ExtractionStage> getStages() {
+        return stages;
+    }
+
+    public Article getArticle() {
+        return article;
+    }
+
+    void setArticle(Article article) {
+        this.article = article;
+    }
+
+    /**
+     * @return The parsed page, cleaned once the clean stage has run
+     */
+    public Document getDocument() {
+        return document;
+    }
+
+    public void setDocument(Document document) {
+        this.document = document;
+    }
+
+    NodeScores getNodeScores() {
+        return nodeScores;
+    }
+
+    public StopWords getStopWords() {
+        return stopWords;
+    }
+
+    void setStopWords(StopWords stopWords) {
+        this.stopWords = stopWords;
+    }
+
+    NodeStats getNodeStats() {
+        if (nodeStats == null) {
+            nodeStats = new NodeStats(stopWords);
+        }
+        return nodeStats;
+    }
+
+    OutputFormatter getOutputFormatter() {
+        if (outputFormatter == null) {
+            outputFormatter = new DefaultOutputFormatter(nodeScores, getNodeStats());
+        }
+        return outputFormatter;
+    }
+
+    BestImageGuesser getImageExtractor() {
+        if (imageExtractor == null) {
+            imageExtractor = new BestImageGuesser(config, urlToCrawl, linkHash);
+            imageExtractor.setDeadline(deadline);
+        }
+        return imageExtractor;
+    }
+
+    int getImageRequestCount() {
+        return imageExtractor == null ? 0 : imageExtractor.getRequestCount();
+    }
+
+    /**
+     * @return The metrics we're collecting, or {@code null} if there's no {@link ExtractionListener}
+     */
+    ExtractionMetrics getMetrics() {
+        return metrics;
+    }
+
+}
@@ -0,0 +1,16 @@
+package me.angrybyte.goose;
+
+/**
+ * Gets the metrics of every extraction, set it with {@link Configuration#setExtractionListener(ExtractionListener)}. Nothing is measured
+ * when there's no listener.
+ */
+public interface ExtractionListener {
+
+    /**
+     * Called once an extraction is done, whether it worked or not, on the thread that finished it. Keep it short, and don't throw.
+     *
+     * @param metrics What the extraction did and how long each stage took
+     */
+    void onExtractionFinished(ExtractionMetrics metrics);
+
+}
@@ -0,0 +1,158 @@
+package me.angrybyte.goose;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Where the time of one extraction went, handed to the {@link ExtractionListener}. Stages are listed in the order they ran, starting with
+ * {@value ExtractionPipeline#STAGE_DOWNLOAD} and {@value ExtractionPipeline#STAGE_PARSE}. Stages that were skipped aren't listed.
+ */
+public class ExtractionMetrics {
+
+    /**
+     * Wall time and allocations of a single stage
+     */
+    public static final class StageMetrics {
+
+        private final String name;
+        private final long startNanos;
+        private final long startAllocatedBytes;
+        private long elapsedNanos;
+        private long allocatedBytes;
+
+        StageMetrics(String name) {
+            this.name = name;
+            this.startNanos = System.nanoTime();
+            this.startAllocatedBytes = AllocationCounter.getCurrentThreadAllocatedBytes();
+        }
+
+        void finish() {
+            elapsedNanos = System.nanoTime() - startNanos;
+            long endAllocatedBytes = AllocationCounter.getCurrentThreadAllocatedBytes();
+            allocatedBytes = startAllocatedBytes < 0 || endAllocatedBytes < 0 ? -1 : endAllocatedBytes - startAllocatedBytes;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * @return Bytes allocated by the thread that ran the stage, or -1 if the platform can't tell (Android can't)
+         */
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        @Override
+        public String toString() {
+            return name + ": " + elapsedNanos / 1000 + "us, " + allocatedBytes + " bytes";
+        }
+    }
+
+    private final String url;
+    private final List<StageMetrics> stages = new ArrayList<>();
+    private int rawHtmlSize = -1;
+    private int nodeCount = -1;
+    private int imageRequestCount;
+    private String failedStage;
+    private Exception failure;
+
+    ExtractionMetrics(String url) {
+        this.url = url;
+    }
+
+    StageMetrics startStage(String name) {
+        return new StageMetrics(name);
+    }
+
+    void finishStage(StageMetrics stage) {
+        stage.finish();
+        stages.add(stage);
+    }
+
+    void setRawHtmlSize(int rawHtmlSize) {
+        this.rawHtmlSize = rawHtmlSize;
+    }
+
+    void setNodeCount(int nodeCount) {
+        this.nodeCount = nodeCount;
+    }
+
+    void setImageRequestCount(int imageRequestCount) {
+        this.imageRequestCount = imageRequestCount;
+    }
+
+    void setFailure(String failedStage, Exception failure) {
+        this.failedStage = failedStage;
+        this.failure = failure;
+    }
+
+    /**
+     * @return The url that was extracted, after the escaped fragment fixes
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    public List<StageMetrics> getStages() {
+        return Collections.unmodifiableList(stages);
+    }
+
+    /**
+     * @return Sum of the wall time of all stages
+     */
+    public long getTotalNanos() {
+        long total = 0;
+        for (StageMetrics stage : stages) {
+            total += stage.getElapsedNanos();
+        }
+        return total;
+    }
+
+    /**
+     * @return Length of the raw html in characters, or -1 if it never arrived
+     */
+    public int getRawHtmlSize() {
+        return rawHtmlSize;
+    }
+
+    /**
+     * @return Number of elements in the parsed document, before cleaning, or -1 if it wasn't parsed
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * @return Number of HTTP requests made while looking for the top image
+     */
+    public int getImageRequestCount() {
+        return imageRequestCount;
+    }
+
+    /**
+     * @return Name of the stage that threw and stopped the extraction, or {@code null} if none did
+     */
+    public String getFailedStage() {
+        return failedStage;
+    }
+
+    /**
+     * @return What the failed stage threw, or {@code null} if no stage did
+     */
+    public Exception getFailure() {
+        return failure;
+    }
+
+    @Override
+    public String toString() {
+        return url + " " + stages + ", html: " + rawHtmlSize + ", nodes: " + nodeCount + ", image requests: " + imageRequestCount
+                + (failedStage == null ? "" : ", failed in " + failedStage + ": " + failure);
+    }
+
+}
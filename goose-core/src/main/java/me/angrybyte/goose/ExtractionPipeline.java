@@ -0,0 +1,181 @@
+package me.angrybyte.goose;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The ordered list of {@link ExtractionStage}s an extraction runs through once the page is downloaded and parsed. The default pipeline
+ * does what Goose always did, in this order: {@value #STAGE_PUBLISH_DATE}, {@value #STAGE_ADDITIONAL_DATA}, {@value #STAGE_TAGS},
+ * {@value #STAGE_CLEAN}, {@value #STAGE_METADATA}, {@value #STAGE_TOP_NODE}, {@value #STAGE_VIDEOS}, {@value #STAGE_TOP_IMAGE} and
+ * {@value #STAGE_FORMAT}. Remove the stages you don't need or add your own, and set it with
+ * {@link Configuration#setExtractionPipeline(ExtractionPipeline)}.
+ * <p/>
+ * Change the pipeline before you start extracting, it can be read by many extractions at once.
+ */
+public class ExtractionPipeline {
+
+    /**
+     * Downloading and parsing the page always come first and aren't part of the pipeline, these are their names in the
+     * {@link ExtractionMetrics}
+     */
+    public static final String STAGE_DOWNLOAD = "download";
+    public static final String STAGE_PARSE = "parse";
+
+    public static final String STAGE_PUBLISH_DATE = "publishDate";
+    public static final String STAGE_ADDITIONAL_DATA = "additionalData";
+    public static final String STAGE_TAGS = "tags";
+    public static final String STAGE_CLEAN = "clean";
+    public static final String STAGE_METADATA = "metadata";
+    public static final String STAGE_TOP_NODE = "topNode";
+    public static final String STAGE_VIDEOS = "videos";
+    public static final String STAGE_TOP_IMAGE = "topImage";
+    public static final String STAGE_FORMAT = "format";
+
+    private final List<ExtractionStage> stages = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates an empty pipeline, see {@link #createDefault()} for the one Goose uses
+     */
+    public ExtractionPipeline() {
+        super();
+    }
+
+    /**
+     * Creates a new pipeline with all of the built-in stages
+     */
+    public static ExtractionPipeline createDefault() {
+        ExtractionPipeline pipeline = new ExtractionPipeline();
+        pipeline.add(new DefaultStages.PublishDate());
+        pipeline.add(new DefaultStages.AdditionalData());
+        pipeline.add(new DefaultStages.Tags());
+        pipeline.add(new DefaultStages.Clean());
+        pipeline.add(new DefaultStages.Metadata());
+        pipeline.add(new DefaultStages.TopNode());
+        pipeline.add(new DefaultStages.Videos());
+        pipeline.add(new DefaultStages.TopImage());
+        pipeline.add(new DefaultStages.Format());
+        return pipeline;
+    }
+
+    /**
+     * @return The stages in the order they run, can't be modified
+     */
+    public List<ExtractionStage> getStages() {
+        return Collections.unmodifiableList(stages);
+    }
+
+    /**
+     * @return The stage with the given name, or {@code null} if there's no such stage
+     */
+    public ExtractionStage getStage(String name) {
+        int index = indexOf(name);
+        return index == -1 ? null : stages.get(index);
+    }
+
+    /**
+     * Adds the stage to the end of the pipeline
+     */
+    public ExtractionPipeline add(ExtractionStage stage) throws IllegalArgumentException {
+        checkNew(stage);
+        stages.add(stage);
+        return this;
+    }
+
+    /**
+     * Adds the stage right before the stage with the given name
+     */
+    public ExtractionPipeline addBefore(String name, ExtractionStage stage) throws IllegalArgumentException {
+        checkNew(stage);
+        stages.add(indexOfExisting(name), stage);
+        return this;
+    }
+
+    /**
+     * Adds the stage right after the stage with the given name
+     */
+    public ExtractionPipeline addAfter(String name, ExtractionStage stage) throws IllegalArgumentException {
+        checkNew(stage);
+        stages.add(indexOfExisting(name) + 1, stage);
+        return this;
+    }
+
+    /**
+     * Puts the stage in place of the stage with the given name, they don't need to have the same name
+     */
+    public ExtractionPipeline replace(String name, ExtractionStage stage) throws IllegalArgumentException {
+        if (stage == null)
+            throw new IllegalArgumentException("stage must not be null!");
+
+        int index = indexOfExisting(name);
+        if (!stage.getName().equals(name)) {
+            checkNew(stage);
+        }
+        stages.set(index, stage);
+        return this;
+    }
+
+    /**
+     * Removes the stage with the given name
+     *
+     * @return true if there was such a stage
+     */
+    public boolean remove(String name) {
+        int index = indexOf(name);
+        if (index == -1) {
+            return false;
+        }
+        stages.remove(index);
+        return true;
+    }
+
+    /**
+     * Picks the stages that need to run for the wanted fields to be filled in: the ones producing a wanted field, the ones producing a
+     * field those need, and so on, plus the ones that don't declare any fields. The order stays the same.
+     */
+    List<ExtractionStage> plan(Set<ArticleField> wantedFields) {
+        Set<ArticleField> neededFields = EnumSet.noneOf(ArticleField.class);
+        neededFields.addAll(wantedFields);
+
+        ArrayList<ExtractionStage> planned = new ArrayList<>(stages.size());
+        List<ExtractionStage> snapshot = new ArrayList<>(stages);
+        for (int i = snapshot.size() - 1; i >= 0; i--) {
+            ExtractionStage stage = snapshot.get(i);
+            Set<ArticleField> produced = stage.getProducedFields();
+            if (produced.isEmpty() || !Collections.disjoint(produced, neededFields)) {
+                planned.add(stage);
+                neededFields.addAll(stage.getRequiredFields());
+            }
+        }
+
+        Collections.reverse(planned);
+        return planned;
+    }
+
+    private void checkNew(ExtractionStage stage) throws IllegalArgumentException {
+        if (stage == null)
+            throw new IllegalArgumentException("stage must not be null!");
+        if (indexOf(stage.getName()) != -1)
+            throw new IllegalArgumentException("There's already a stage named " + stage.getName() + " in the pipeline!");
+    }
+
+    private int indexOfExisting(String name) throws IllegalArgumentException {
+        int index = indexOf(name);
+        if (index == -1)
+            throw new IllegalArgumentException("There's no stage named " + name + " in the pipeline!");
+        return index;
+    }
+
+    private int indexOf(String name) {
+        for (int i = 0; i < stages.size(); i++) {
+            if (stages.get(i).getName().equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+}
@@ -0,0 +1,100 @@
+package me.angrybyte.goose;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * One step of the {@link ExtractionPipeline}, like cleaning the document or finding the top node. Stages run in pipeline order, after
+ * the page is downloaded and parsed, and work on the {@link ExtractionContext} of the extraction.
+ * <p/>
+ * A stage declares the fields it fills in (or prepares for the stages after it) and the fields it needs, so the extractor can skip it
+ * when none of its fields are wanted. A stage that declares no fields always runs. The same stage instance runs for all extractions, on
+ * many threads at once, so keep your state in the context.
+ */
+public abstract class ExtractionStage {
+
+    private final String name;
+    private final Set<ArticleField> producedFields;
+    private final Set<ArticleField> requiredFields;
+
+    /**
+     * @param name           Unique name of the stage within its pipeline
+     * @param producedFields Fields this stage fills in or prepares
+     * @param requiredFields Fields this stage needs from the stages before it
+     */
+    protected ExtractionStage(String name, Set<ArticleField> producedFields, Set<ArticleField> requiredFields) {
+        if (name == null)
+            throw new IllegalArgumentException("name must not be null!");
+        if (producedFields == null || requiredFields == null)
+            throw new IllegalArgumentException("Fields must not be null!");
+
+        this.name = name;
+        this.producedFields = Collections.unmodifiableSet(copyOf(producedFields));
+        this.requiredFields = Collections.unmodifiableSet(copyOf(requiredFields));
+    }
+
+    /**
+     * Creates a stage that needs nothing from the stages before it
+     *
+     * @param name           Unique name of the stage within its pipeline
+     * @param producedFields Fields this stage fills in or prepares
+     */
+    protected ExtractionStage(String name, ArticleField... producedFields) {
+        this(name, fields(producedFields), EnumSet.noneOf(ArticleField.class));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Set<ArticleField> getProducedFields() {
+        return producedFields;
+    }
+
+    public Set<ArticleField> getRequiredFields() {
+        return requiredFields;
+    }
+
+    /**
+     * @return true if this stage mostly waits on the network, so async extractions run it on {@link Configuration#getNetworkExecutor()}
+     * instead of {@link Configuration#getCpuExecutor()}
+     */
+    public boolean isNetworkBound() {
+        return false;
+    }
+
+    /**
+     * Called right before {@link #process(ExtractionContext)}, return false if there's nothing to do for this extraction (say the top node
+     * wasn't found), so async extractions don't switch executors for nothing
+     */
+    public boolean shouldProcess(ExtractionContext context) {
+        return true;
+    }
+
+    /**
+     * Does the work of this stage. Throwing stops the extraction, and the article is returned as far as it got.
+     */
+    public abstract void process(ExtractionContext context) throws Exception;
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    /**
+     * Helper for building field sets, {@code fields(TITLE, TAGS)}
+     */
+    protected static Set<ArticleField> fields(ArticleField... fields) {
+        Set<ArticleField> set = EnumSet.noneOf(ArticleField.class);
+        Collections.addAll(set, fields);
+        return set;
+    }
+
+    private static Set<ArticleField> copyOf(Set<ArticleField> fields) {
+        Set<ArticleField> copy = EnumSet.noneOf(ArticleField.class);
+        copy.addAll(fields);
+        return copy;
+    }
+
+}
@@ -11,8 +11,6 @@
 
 package me.angrybyte.goose;
 
-import android.annotation.SuppressLint;
-
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 
@@ -29,8 +27,14 @@ import java.util.Calendar;
  */
 public class ParseWrapper {
 
-    @SuppressLint("SimpleDateFormat") // this is a web scrape, no localization standard
-    private static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+    // SimpleDateFormat is not thread-safe, so every parsing thread gets its own
+    private static final ThreadLocal<SimpleDateFormat> DATE_FORMAT = new ThreadLocal<SimpleDateFormat>() {
+        @Override
+        protected SimpleDateFormat initialValue() {
+            // this is a web scrape, no localization standard
+            return new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        }
+    };
 
     public String status = "notStarted";
 
@@ -53,7 +57,7 @@ public class ParseWrapper {
 
     public static String now() {
         Calendar cal = Calendar.getInstance();
-        return DATE_FORMAT.format(cal.getTime());
+        return DATE_FORMAT.get().format(cal.getTime());
     }
 
 }
@@ -0,0 +1,355 @@
+/**
+ * Licensed to Gravity.com under one or more contributor license agreements.  See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Gravity.com licenses this file to you under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package me.angrybyte.goose.cleaners;
+
+import org.jsoup.nodes.Attribute;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.parser.Tag;
+import org.jsoup.select.Elements;
+
+import java.util.ArrayList;
+import java.util.regex.Pattern;
+
+import me.angrybyte.goose.texthelpers.ReplaceSequence;
+import me.angrybyte.goose.texthelpers.string;
+
+/**
+ * User: Jim Plush Date: 12/18/10 This class is used to pre clean documents(webpages) We go through 3 phases of parsing a website cleaning
+ * -> extraction -> output formatter This is the cleaning phase that will try to remove comments, known ad junk, social networking divs
+ * other things that are known to not be content related.
+ */
+
+public class DefaultDocumentCleaner implements DocumentCleaner {
+
+    /*
+     * This regex is used to remove undesirable nodes from our doc indicate that something maybe isn't content but more of a comment, footer
+     * or some other undesirable node. It's checked against the id, class and name of everything inside the body
+     */
+    private static final Pattern naughtyPattern;
+
+    /**
+     * regex to detect if there are block level elements inside of a div element
+     */
+    private static final Pattern divToPElementsPattern = Pattern.compile("<(a|blockquote|dl|div|img|ol|p|pre|table|ul)");
+    private static final Pattern blockTagPattern = Pattern.compile("(a|blockquote|dl|div|img|ol|p|pre|table|ul)");
+
+    private static final ReplaceSequence tabsAndNewLinesReplcesments;
+
+    /*
+     * Captions, google ads, "more" entries, and twitter and facebook nodes (mashable has f'd up class names for these). Checked against
+     * the id and class of every node in the document
+     */
+    private static final Pattern junkPattern = Pattern.compile("^caption$| google |^[^entry-]more.*$|[^-]facebook|[^-]twitter");
+
+    private static final Pattern dropCapPattern = Pattern.compile("(dropcap|drop_cap)");
+
+    static {
+        // create negative elements
+        String regExRemoveNodes = ("^side$|combx|retweet|menucontainer|navbar|comment|PopularQuestions|contact|foot|footer|Footer|footnote|cnn_strycaptiontxt|links|meta$"
+                + "|scroll|shoutbox|sponsor")
+                + "|tags|socialnetworking|socialNetworking|cnnStryHghLght|cnn_stryspcvbx|^inset$|pagetools|post-attributes|welcome_form|contentTools2"
+                + "|the_answers"
+                + "|communitypromo|subscribe|vcard|articleheadings|date|print|popup|author-dropdown|tools|socialtools|byline|konafilter|KonaFilter"
+                + "|breadcrumbs|^fn$|wp-caption-text";
+        naughtyPattern = Pattern.compile("(" + regExRemoveNodes + ")");
+
+        tabsAndNewLinesReplcesments = ReplaceSequence.create("\n", "\n\n").append("\t").append("^\\s+$");
+    }
+
+    public Document clean(Document doc) {
+        // em tags, drop caps, scripts, styles and all the naughty nodes go away in a single walk
+        removeJunk(doc);
+
+        // turn any divs that aren't used as true layout items with block level elements inside them into paragraph tags
+        Document docToClean = doc;
+        docToClean = convertDivsToParagraphs(docToClean, "div");
+        docToClean = convertDivsToParagraphs(docToClean, "span");
+
+        return docToClean;
+    }
+
+    /**
+     * Walks the document once and applies the rules to every element, in the order they used to run as separate passes: an em tag without
+     * images becomes its text, so does a drop cap span, scripts and styles are removed, and so is anything with a naughty id, class or name
+     * inside the body or with a junk id or class anywhere. Nothing inside a replaced or removed element is visited.
+     */
+    private void removeJunk(Document doc) {
+        Element body = doc.body();
+        boolean insideBody = false;
+
+        Node node = doc.childNodeSize() > 0 ? doc.childNode(0) : null;
+        while (node != null) {
+            Node parent = node.parentNode();
+            Node next = node.nextSibling();
+
+            boolean keep = !(node instanceof Element) || cleanElement(doc, (Element) node, insideBody);
+            if (keep && node.childNodeSize() > 0) {
+                if (node == body) {
+                    insideBody = true;
+                }
+                node = node.childNode(0);
+                continue;
+            }
+
+            // go to the next sibling, or to the next sibling of the closest parent that has one
+            while (next == null && parent != doc) {
+                if (parent == body) {
+                    insideBody = false;
+                }
+                next = parent.nextSibling();
+                parent = parent.parentNode();
+            }
+            node = next;
+        }
+    }
+
+    /**
+     * @return true if the element is still there and its children should be cleaned too
+     */
+    private boolean cleanElement(Document doc, Element element, boolean insideBody) {
+        String tagName = element.tagName();
+        if (tagName.equals("em")) {
+            if (element.getElementsByTag("img").size() == 0) {
+                replaceWithText(doc, element);
+                return false;
+            }
+        } else if (tagName.equals("span") && matches(element, "class", dropCapPattern)) {
+            // em tags were text before drop caps were looked at
+            cleanEmTags(doc, element);
+            replaceWithText(doc, element);
+            return false;
+        } else if (tagName.equals("script") || tagName.equals("style")) {
+            element.remove();
+            return false;
+        }
+
+        if (isJunk(element, insideBody)) {
+            element.remove();
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Checks the element's id, class and name (only inside the body) against the naughty pattern, and its id and class against the junk
+     * pattern
+     */
+    private static boolean isJunk(Element element, boolean insideBody) {
+        if (element.attributes().size() == 0) {
+            return false;
+        }
+
+        if (insideBody && (matches(element, "id", naughtyPattern) || matches(element, "class", naughtyPattern)
+                || matches(element, "name", naughtyPattern))) {
+            return true;
+        }
+
+        return matches(element, "id", junkPattern) || matches(element, "class", junkPattern);
+    }
+
+    private static boolean matches(Element element, String attribute, Pattern pattern) {
+        return element.hasAttr(attribute) && pattern.matcher(element.attr(attribute)).find();
+    }
+
+    private static void replaceWithText(Document doc, Element element) {
+        TextNode tn = new TextNode(element.text(), doc.baseUri());
+        element.replaceWith(tn);
+    }
+
+    private Document convertDivsToParagraphs(Document doc, String domType) {
+        Elements divs = doc.getElementsByTag(domType);
+        for (Element div : divs) {
+            try { // this try catches a NPE, so it will just continue when it happens
+                if (!isInDocument(div, doc)) {
+                    // it was inside of a div that's already been replaced, along with everything in it
+                    continue;
+                }
+
+                if (!hasBlockElements(div)) {
+                    Element newNode = new Element(Tag.valueOf("p"), doc.baseUri());
+                    if (hasOnlyText(div)) {
+                        // no need to go through the html, the text comes out of it the same as it is here
+                        String text = getHtmlText(div);
+                        if (!text.isEmpty()) {
+                            newNode.appendChild(new TextNode(text, doc.baseUri()));
+                        }
+                    } else {
+                        newNode.append(div.html());
+                    }
+                    div.replaceWith(newNode);
+                } else {
+                    // Try to convert any div with just text inside it to a paragraph so it can be counted as text, otherwise it would be ignored
+                    // example <div>This is some text in a div</div> should be <div><p>this is some text in a div</p></div>
+                    // db(div.childNodes().size() + " childnodes");
+
+                    // create a master text node to hold all the child node texts so that  links that were replaced with text notes
+                    // don't become their own paragraphs
+
+                    StringBuilder replacementText = new StringBuilder();
+                    ArrayList<Node> nodesToRemove = new ArrayList<>();
+
+                    for (Node kid : div.childNodes()) {
+                        if (kid.nodeName().equals("#text")) {
+                            TextNode txtNode = (TextNode) kid;
+                            String text = txtNode.getWholeText();
+                            if (string.isNullOrEmpty(text)) {
+                                continue;
+                            }
+
+                            //clean up text from tabs and newlines
+                            text = tabsAndNewLinesReplcesments.replaceAll(text);
+
+                            if (text.length() > 1) {
+                                // check for siblings that might be links that we want to include in our new node
+                                Node previousSib = kid.previousSibling();
+
+                                if (previousSib != null) {
+                                    if (previousSib.nodeName().equals("a")) {
+                                        replacementText.append(previousSib.outerHtml());
+                                        // Log.d(TAG, "SIBLING NODENAME ADDITION: " + previousSib.nodeName() + " TEXT: " + previousSib.outerHtml());
+                                    }
+                                }
+                                replacementText.append(text);
+                                nodesToRemove.add(kid);
+                            }
+                        }
+                    }
+
+                    // replace div's text with the new master replacement text node that containts the sum of all the little text nodes
+                    // div.appendChild(replacementTextNode);
+
+                    Element newPara = new Element(Tag.valueOf("p"), doc.baseUri());
+                    newPara.html(replacementText.toString());
+                    div.childNode(0).before(newPara.outerHtml());
+
+                    for (Node n : nodesToRemove) {
+                        n.remove();
+                    }
+                }
+            } catch (Exception ignored) {
+            }
+        }
+
+        return doc;
+    }
+
+    /**
+     * Walks up instead of asking for the owner document, which recurses as deep as the element is nested
+     */
+    private static boolean isInDocument(Element element, Document doc) {
+        Node root = element;
+        while (root.parentNode() != null) {
+            root = root.parentNode();
+        }
+        return root == doc;
+    }
+
+    private static boolean hasOnlyText(Element div) {
+        for (Node kid : div.childNodes()) {
+            if (!(kid instanceof TextNode)) {
+                return false;
+            }
+        }
+        return !div.tag().preserveWhitespace() && (div.parent() == null || !div.parent().tag().preserveWhitespace());
+    }
+
+    /**
+     * @return The text of an element with only text nodes in it, as it comes out of {@link Element#html()} and back in: whitespace collapsed
+     * to single spaces and trimmed when pretty printing, which is the default
+     */
+    private static String getHtmlText(Element div) {
+        StringBuilder text = new StringBuilder();
+        for (Node kid : div.childNodes()) {
+            text.append(((TextNode) kid).getWholeText());
+        }
+
+        Document doc = div.ownerDocument();
+        if (doc != null && !doc.outputSettings().prettyPrint()) {
+            return text.toString();
+        }
+
+        StringBuilder collapsed = new StringBuilder(text.length());
+        boolean lastWasWhite = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ' ' || c == '\t' || c == '\n' || c == '\f' || c == '\r') {
+                if (!lastWasWhite) {
+                    collapsed.append(' ');
+                }
+                lastWasWhite = true;
+            } else {
+                collapsed.append(c);
+                lastWasWhite = false;
+            }
+        }
+        return collapsed.toString().trim();
+    }
+
+    /**
+     * Tells whether the html of the element has any of the block level tags from {@code divToPElementsPattern} in it, without writing the
+     * html out: looks at the descendant tag names, the attributes, and the comments (which are written out as they are). Text can't
+     * match because its '<' is always escaped.
+     */
+    private static boolean hasBlockElements(Element div) {
+        Node node = div.childNodeSize() > 0 ? div.childNode(0) : null;
+        while (node != null) {
+            if (node instanceof Element) {
+                Element element = (Element) node;
+                if (blockTagPattern.matcher(element.tagName().toLowerCase()).lookingAt()) {
+                    return true;
+                }
+                for (Attribute attribute : element.attributes()) {
+                    if (hasBlockMarkup(attribute.getKey()) || hasBlockMarkup(attribute.getValue())) {
+                        return true;
+                    }
+                }
+            } else if (!(node instanceof TextNode) && hasBlockMarkup(node.outerHtml())) {
+                return true;
+            }
+
+            // next node in document order, without leaving the div
+            if (node.childNodeSize() > 0) {
+                node = node.childNode(0);
+                continue;
+            }
+            while (node != div && node.nextSibling() == null) {
+                node = node.parentNode();
+            }
+            node = node == div ? null : node.nextSibling();
+        }
+        return false;
+    }
+
+    private static boolean hasBlockMarkup(String html) {
+        return html.indexOf('<') >= 0 && divToPElementsPattern.matcher(html.toLowerCase()).find();
+    }
+
+    /**
+     * Replaces <em> tags with text nodes
+     */
+    private void cleanEmTags(Document doc, Element root) {
+        Elements ems = root.getElementsByTag("em");
+        for (Element node : ems) {
+            // replace the node with a text node
+            Elements images = node.getElementsByTag("img");
+            if (images.size() != 0) {
+                continue;
+            }
+            replaceWithText(doc, node);
+        }
+    }
+
+}
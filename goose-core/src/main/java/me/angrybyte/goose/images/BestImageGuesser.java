@@ -26,6 +26,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import me.angrybyte.goose.Configuration;
+import me.angrybyte.goose.Deadline;
 import me.angrybyte.goose.network.GooseDownloader;
 import me.angrybyte.goose.texthelpers.string;
 
@@ -38,15 +39,16 @@ import me.angrybyte.goose.texthelpers.string;
 public class BestImageGuesser implements ImageExtractor {
 
     /**
-     * This lists all the known bad button names that we have
+     * This lists all the known bad button names that we have. Only the pattern is shared, every check creates its own {@link Matcher}
+     * because matchers are not thread-safe.
      */
-    private static final Matcher matchBadImageNames;
+    private static final Pattern badImageNames;
 
     static {
         String negatives = (".html|.gif|.ico|button|twitter.jpg|facebook.jpg|digg.jpg|digg.png|delicious.png|facebook.png|reddit" + ""
                 + ".jpg|doubleclick|diggthis|diggThis|adserver|/ads/|ec.atdmt.com") + "|mediaplex.com|adsatt|view.atdmt";
         // create negative elements
-        matchBadImageNames = Pattern.compile(negatives).matcher(string.empty);
+        badImageNames = Pattern.compile(negatives);
     }
 
     /**
@@ -84,13 +86,31 @@ public class BestImageGuesser implements ImageExtractor {
      */
     Configuration config;
 
+    /**
+     * how many HTTP requests we've made, for the extraction metrics
+     */
+    private int requestCount;
+
+    /**
+     * we stop making requests once this passes and go with what we have
+     */
+    private Deadline deadline = Deadline.NONE;
+    private boolean timedOut;
+
     public BestImageGuesser(Configuration config, String targetUrl) {
+        this(config, targetUrl, md5(targetUrl));
+    }
+
+    /**
+     * @param linkhash prefix for the temp images this guesser downloads, must be unique to the extraction so the images can be cleaned up
+     */
+    public BestImageGuesser(Configuration config, String targetUrl, String linkhash) {
         image = new Image();
 
         this.config = config;
 
         this.targetUrl = targetUrl;
-        this.linkhash = md5(this.targetUrl);
+        this.linkhash = linkhash;
     }
 
     public Image getBestImage(Document doc, Element topNode) {
@@ -217,7 +237,7 @@ public class BestImageGuesser implements ImageExtractor {
      * height/width and possibly things like color density
      */
     private void checkForLargeImages(Element node, int parentDepth, int siblingDepth) {
-        if (node == null)
+        if (node == null || isOutOfTime())
             return;
 
         Elements images = node.select("img");
@@ -273,7 +293,7 @@ public class BestImageGuesser implements ImageExtractor {
         int cnt = 0;
         ArrayList<Element> goodImages = new ArrayList<>();
         for (Element image : images) {
-            if (cnt > 30) {
+            if (cnt > 30 || isOutOfTime()) {
                 return goodImages;
             }
             int bytes = this.getBytesForImage(image.attr("src"));
@@ -311,8 +331,7 @@ public class BestImageGuesser implements ImageExtractor {
         if (string.isNullOrEmpty(imgSrc)) {
             return false;
         }
-        matchBadImageNames.reset(imgSrc);
-        return !matchBadImageNames.find();
+        return !badImageNames.matcher(imgSrc).find();
     }
 
     private static final String[] knownIds = {
@@ -358,10 +377,19 @@ public class BestImageGuesser implements ImageExtractor {
      * link to the image if they use relative urls like ../myimage.jpg
      */
     private String buildImagePath(String image) {
+        return buildImagePath(this.targetUrl, image);
+    }
+
+    /**
+     * @param pageUrl The url of the page the image is on
+     * @param image   The image path as it is in the page, relative or absolute
+     * @return The absolute url of the image, or the path with its spaces encoded if it can't be resolved against the page url
+     */
+    public static String buildImagePath(String pageUrl, String image) {
         URL pageURL;
         String newImage = image.replace(" ", "%20");
         try {
-            pageURL = new URL(this.targetUrl);
+            pageURL = new URL(pageUrl);
             URL imageURL = new URL(pageURL, image);
             newImage = imageURL.toString();
         } catch (MalformedURLException ignored) {
@@ -374,6 +402,7 @@ public class BestImageGuesser implements ImageExtractor {
      */
     private int getBytesForImage(String imageSrc) {
         int bytes = 0;
+        requestCount++;
         try {
             String content = this.buildImagePath(imageSrc);
             content = content.replace(" ", "%20");
@@ -408,7 +437,7 @@ public class BestImageGuesser implements ImageExtractor {
         int initialArea = 0;
 
         for (Element image : images) {
-            if (cnt > 30) {
+            if (cnt > 30 || isOutOfTime()) {
                 break;
             }
 
@@ -416,6 +445,8 @@ public class BestImageGuesser implements ImageExtractor {
             try {
                 String imageSource = this.buildImagePath(image.attr("src"));
 
+                // a content info request and the image itself
+                requestCount += 2;
                 String cachePath = ImageSaver.storeTempImage(linkhash, imageSource, config.getCacheDirectory(), config.getMinBytesForImages());
                 if (cachePath == null) {
                     continue;
@@ -493,6 +524,36 @@ public class BestImageGuesser implements ImageExtractor {
         return false;
     }
 
+    /**
+     * @return How many HTTP requests this guesser has made so far
+     */
+    public int getRequestCount() {
+        return requestCount;
+    }
+
+    /**
+     * @param deadline Once this expires no more images are requested, and the best image found so far is returned
+     */
+    public void setDeadline(Deadline deadline) {
+        if (deadline == null)
+            throw new IllegalArgumentException("deadline must not be null!");
+        this.deadline = deadline;
+    }
+
+    /**
+     * @return true if the deadline cut the image search short
+     */
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    private boolean isOutOfTime() {
+        if (!timedOut && deadline.isExpired()) {
+            timedOut = true;
+        }
+        return timedOut;
+    }
+
     @SuppressWarnings("unused")
     public int getMinBytesForImages() {
         return minBytesForImages;
@@ -11,10 +11,7 @@
 
 package me.angrybyte.goose.images;
 
-import android.graphics.Bitmap;
-import android.text.TextUtils;
-import android.util.Log;
-
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.File;
@@ -22,6 +19,7 @@ import java.io.FileOutputStream;
 import java.util.Random;
 
 import me.angrybyte.goose.network.GooseDownloader;
+import me.angrybyte.goose.platform.Platform;
 
 /**
  * This class will be responsible for storing images to disk
@@ -42,7 +40,7 @@ public class ImageSaver {
             try {
                 webType = ImageUtils.getFileExtensionSimple(GooseDownloader.getContentInfo(imageSrc, true).mimeType);
             } catch (Exception e) {
-                Log.w(ImageSaver.class.getSimpleName(), e.getMessage());
+                Platform.getLogger().warn(ImageSaver.class.getSimpleName(), e.getMessage(), null);
             }
             if (webType == null) {
                 webType = "";
@@ -56,15 +54,13 @@ public class ImageSaver {
             String filePathRaw = cacheDirectory + File.separator + fileNameRaw;
 
             // save it to temporary cache
-            Bitmap webBitmap = GooseDownloader.getPhoto(imageSrc, true);
-            if (webBitmap == null) {
+            byte[] webBytes = GooseDownloader.getPhotoBytes(imageSrc, true);
+            webBitmapStream = new ByteArrayOutputStream();
+            if (webBytes == null || !Platform.getImageDecoder().writeJpeg(new ByteArrayInputStream(webBytes), webBitmapStream)) {
                 throw new IllegalArgumentException("Bitmap at " + imageSrc + " doesn't exist");
             }
 
             fileStream = new FileOutputStream(filePath);
-            webBitmapStream = new ByteArrayOutputStream();
-
-            webBitmap.compress(Bitmap.CompressFormat.JPEG, 100, webBitmapStream);
             byte[] byteArray = webBitmapStream.toByteArray();
             fileStream.write(byteArray);
             fileStream.flush();
@@ -73,7 +69,7 @@ public class ImageSaver {
 
             // get mime type and store the image extension based on that
             String mimeExtension = ImageUtils.getFileExtension(filePath);
-            if (TextUtils.isEmpty(mimeExtension)) {
+            if (mimeExtension == null || mimeExtension.isEmpty()) {
                 return null;
             }
 
@@ -84,7 +80,7 @@ public class ImageSaver {
 
             File newFile = new File(filePathRaw + mimeExtension);
             if (!f.renameTo(newFile)) {
-                Log.e(ImageSaver.class.getName(), "Can't rename file");
+                Platform.getLogger().error(ImageSaver.class.getName(), "Can't rename file", null);
             }
             return filePathRaw + mimeExtension;
         } finally {
@@ -11,11 +11,11 @@
 
 package me.angrybyte.goose.images;
 
-import android.graphics.BitmapFactory;
-
 import java.io.IOException;
 import java.util.Locale;
 
+import me.angrybyte.goose.platform.Platform;
+
 public class ImageUtils {
 
     /**
@@ -23,19 +23,7 @@ public class ImageUtils {
      */
     public static ImageDetails getImageDetails(String filePath) throws IOException {
         try {
-            BitmapFactory.Options options = new BitmapFactory.Options();
-            options.inJustDecodeBounds = true;
-            // returns null, sizes are in the options variable
-            BitmapFactory.decodeFile(filePath, options);
-            int width = options.outWidth;
-            int height = options.outHeight;
-            String type = options.outMimeType;
-
-            ImageDetails imageDetails = new ImageDetails();
-            imageDetails.setMimeType(type);
-            imageDetails.setWidth(width);
-            imageDetails.setHeight(height);
-            return imageDetails;
+            return Platform.getImageDecoder().getImageDetails(filePath);
         } catch (Exception e) {
             throw new IOException(e);
         }
@@ -1,24 +1,25 @@
 package me.angrybyte.goose.network;
 
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
-import android.text.TextUtils;
-import android.util.Log;
-
+import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.util.Scanner;
 
+import me.angrybyte.goose.platform.Platform;
+
 /**
- * A rework of the old {@code HtmlFetcher} that works with Android platform. Helps you download HTML and Bitmaps.
+ * A rework of the old {@code HtmlFetcher} that works with Android platform. Helps you download HTML and images.
  */
 public class GooseDownloader {
 
     private static final String TAG = GooseDownloader.class.getSimpleName();
     private static final int MAX_BYTES = 15 * 1024 * 1024;
+    private static final String HEAD_END = "</head>";
 
     private static final String AGENT = "Mozilla/5.0 (Windows NT 6.1; WOW64) AppleWebKit/537.4 (KHTML, like Gecko) Chrome/22.0.1229.94 Safari/537.4";
     private static final String CONTENT = "application/xml,application/xhtml+xml,text/html,application/javascript;q=0.9,text/plain;q=0.8,image/png,*/*;q=0.5";
@@ -54,6 +55,27 @@ public class GooseDownloader {
      * @throws NotHtmlException  If we determine it's not HTML, this will be thrown
      */
     public static String getHtml(String textUrl, boolean followRedirects) throws IOException, MaxBytesException, NotHtmlException {
+        return download(textUrl, followRedirects, false);
+    }
+
+    /**
+     * Same as {@link #getHtml(String, boolean)}, but stops reading as soon as the closing head tag comes in. Good for when you only need
+     * the title and the meta tags, as the body is usually most of the page.
+     *
+     * @param textUrl Which URL to use
+     * @param followRedirects Whether to follow 301 and 302 server redirect codes
+     * @return HTML content up to and including {@code </head>}, or the whole page if it has no closing head tag
+     *
+     * @throws IOException       Usually occurs when URL connection fails or you have an invalid URL
+     * @throws MaxBytesException Maximum page size must be smaller than {@link #MAX_BYTES}, or this will be thrown
+     * @throws NotHtmlException  If we determine it's not HTML, this will be thrown
+     */
+    public static String getHead(String textUrl, boolean followRedirects) throws IOException, MaxBytesException, NotHtmlException {
+        return download(textUrl, followRedirects, true);
+    }
+
+    private static String download(String textUrl, boolean followRedirects, boolean headOnly)
+            throws IOException, MaxBytesException, NotHtmlException {
         HttpURLConnection connection = null;
         InputStream stream = null;
 
@@ -70,9 +92,9 @@ public class GooseDownloader {
             }
 
             stream = connection.getInputStream();
-            String content = convertStream(stream);
+            String content = headOnly ? convertStreamUntilHeadEnd(stream) : convertStream(stream);
 
-            if (TextUtils.isEmpty(content)) {
+            if (content == null || content.isEmpty()) {
                 throw new NotHtmlException();
             }
 
@@ -176,22 +198,29 @@ public class GooseDownloader {
     }
 
     /**
-     * Downloads a Bitmap image from the given URL. Follows redirects.
+     * Downloads an image (or anything else) from the given URL, as it is. Decoding it is up to the platform, see
+     * {@link me.angrybyte.goose.platform.ImageDecoder}.
      *
      * @param textUrl Which URL to use
      * @param followRedirects Whether to follow 301 and 302 server redirect codes
-     * @return A Bitmap object if download succeeds, or {@code null} if download fails
+     * @return The downloaded bytes if download succeeds, or {@code null} if download fails
      */
-    public static Bitmap getPhoto(String textUrl, boolean followRedirects) {
+    public static byte[] getPhotoBytes(String textUrl, boolean followRedirects) {
         HttpURLConnection connection = null;
         InputStream stream = null;
         try {
             connection = prepareConnection(textUrl, followRedirects);
             connection.connect();
             stream = connection.getInputStream();
-            return BitmapFactory.decodeStream(stream);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                bytes.write(buffer, 0, read);
+            }
+            return bytes.toByteArray();
         } catch (Exception e) {
-            Log.e(TAG, "Bitmap download exception");
+            Platform.getLogger().error(TAG, "Image download exception", null);
             return null;
         } finally {
             close(stream);
@@ -215,7 +244,7 @@ public class GooseDownloader {
             String type = connection.getContentType();
             return new ContentInfo(textUrl, size, type);
         } catch (Exception e) {
-            Log.e(TAG, "Cannot get content info from " + textUrl, e);
+            Platform.getLogger().error(TAG, "Cannot get content info from " + textUrl, e);
             return ContentInfo.EMPTY;
         } finally {
             disconnect(connection);
@@ -235,4 +264,47 @@ public class GooseDownloader {
         return s.hasNext() ? s.next() : "";
     }
 
+    /**
+     * Reads an InputStream up to the closing head tag and converts that part to a String. The rest of the stream is not read.
+     *
+     * @param stream An {@link InputStream} to convert
+     * @return The text up to and including {@code </head>}, the full text if there's no closing head tag, or an empty string
+     *
+     * @throws IOException Usually occurs when URL connection fails or you have an invalid URL
+     */
+    public static String convertStreamUntilHeadEnd(InputStream stream) throws IOException {
+        Reader reader = new InputStreamReader(stream, "UTF-8");
+        StringBuilder content = new StringBuilder();
+        char[] buffer = new char[4096];
+
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            // the tag may have been split between two reads
+            int searchFrom = Math.max(0, content.length() - HEAD_END.length() + 1);
+            content.append(buffer, 0, read);
+
+            int headEnd = indexOfIgnoreCase(content, HEAD_END, searchFrom);
+            if (headEnd != -1) {
+                content.setLength(headEnd + HEAD_END.length());
+                break;
+            }
+        }
+
+        return content.toString();
+    }
+
+    private static int indexOfIgnoreCase(CharSequence text, String lowerCaseNeedle, int from) {
+        int last = text.length() - lowerCaseNeedle.length();
+        for (int i = from; i <= last; i++) {
+            int j = 0;
+            while (j < lowerCaseNeedle.length() && Character.toLowerCase(text.charAt(i + j)) == lowerCaseNeedle.charAt(j)) {
+                j++;
+            }
+            if (j == lowerCaseNeedle.length()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
 }
@@ -0,0 +1,474 @@
+/**
+ * Licensed to Gravity.com under one or more contributor license agreements.  See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Gravity.com licenses this file to you under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package me.angrybyte.goose.outputformatters;
+
+/**
+ * User: jim plush Date: 12/19/10
+ */
+
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.select.Elements;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.NodeVisitor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import me.angrybyte.goose.scoring.NodeScores;
+import me.angrybyte.goose.scoring.NodeStats;
+import me.angrybyte.goose.texthelpers.StopWords;
+import me.angrybyte.goose.texthelpers.TextAccumulator;
+
+/**
+ * this class will be responsible for taking our top node and stripping out junk we don't want and getting it ready for how we want it
+ * presented to the user
+ */
+public class DefaultOutputFormatter implements OutputFormatter {
+
+    private Element topNode;
+
+    // gravity scores of the extraction this formatter belongs to
+    private final NodeScores nodeScores;
+
+    // text stats of the same extraction, we keep them up to date as we change the top node
+    private final NodeStats nodeStats;
+
+    /**
+     * Creates a formatter that knows of no scored nodes, so it won't remove anything for its score
+     */
+    public DefaultOutputFormatter() {
+        this(new NodeScores());
+    }
+
+    /**
+     * @param nodeScores the scores calculated while looking for the top node
+     */
+    public DefaultOutputFormatter(NodeScores nodeScores) {
+        this(nodeScores, new NodeStats());
+    }
+
+    /**
+     * @param nodeScores the scores calculated while looking for the top node
+     * @param nodeStats  the text stats gathered while looking for the top node, this formatter invalidates what it changes
+     */
+    public DefaultOutputFormatter(NodeScores nodeScores, NodeStats nodeStats) {
+        this.nodeScores = nodeScores;
+        this.nodeStats = nodeStats;
+    }
+
+    /**
+     * Deprecated use {@link #getFormattedText(Element)}
+     *
+     * @param topNode the top most node to format
+     * @return the prepared Element
+     */
+    @Deprecated
+    public Element getFormattedElement(Element topNode) {
+
+        this.topNode = topNode;
+        removeNegativesAndConvertToText(true);
+        removeParagraphsAndCollectText(false);
+        return topNode;
+
+    }
+
+    /**
+     * Removes all unnecessary elements and formats the selected text nodes
+     *
+     * @param topNode the top most node to format
+     * @return a formatted string with all HTML removed
+     */
+    public String getFormattedText(Element topNode) {
+        this.topNode = topNode;
+        removeNegativesAndConvertToText(true);
+        return removeParagraphsAndCollectText(false);
+    }
+
+    /**
+     *  Removes unnecessary elements. Unlike getFormattedText(), it does not remove links and other use full html tags used for formatting.
+     * @param topNode
+     * @return
+     */
+    @Override
+    public String getFormattedTextForWebView(Element topNode) {
+        this.topNode = topNode;
+        removeNegativesAndConvertToText(false);
+        return removeParagraphsAndCollectText(true);
+    }
+
+    /**
+     * Deprecated use {@link #getFormattedText(Element)} takes an element and turns the P tags into \n\n // todo move this to an output
+     * formatter object instead of inline here
+     */
+    @Deprecated
+    public String getFormattedText() {
+        StringBuilder sb = new StringBuilder();
+
+        Elements nodes = topNode.getAllElements();
+        for (Element e : nodes) {
+            if (e.tagName().equals("p")) {
+                String text = unescapeHtml(e.text()).trim();
+                sb.append(text);
+                sb.append("\n\n");
+            }
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * <p>
+     * Un-escapes a string containing entity escapes to a string containing the actual Unicode characters corresponding to the escapes.
+     * Supports HTML 4.0 entities.
+     * </p>
+     * <p/>
+     * <p>
+     * For example, the string "&amp;lt;Fran&amp;ccedil;ais&amp;gt;" will become "&lt;Fran&ccedil;ais&gt;"
+     * </p>
+     * <p/>
+     * <p>
+     * If an entity is unrecognized, it is left alone, and inserted verbatim into the result string. e.g. "&amp;gt;&amp;zzzz;x" will become
+     * "&gt;&amp;zzzz;x".
+     * </p>
+     *
+     * @param str the <code>String</code> to unescape, may be null
+     * @return a new unescaped <code>String</code>, <code>null</code> if null string input
+     **/
+    public static String unescapeHtml(String str) {
+        if (str == null) {
+            return null;
+        }
+        return Entities.HTML40.unescape(str);
+    }
+
+    /**
+     * if there are elements inside our top node that have a negative gravity score, let's give em the boot. When formatting for text,
+     * links (without images) and the strong, b and i tags are then replaced with just the text inside them so we don't have any crazy
+     * formatting issues. One walk finds all of them, nothing under a removed element is looked at.
+     */
+    private void removeNegativesAndConvertToText(boolean convertToText) {
+        boolean removeNegatives = nodeScores.size() > 0;
+        if (!removeNegatives && !convertToText) {
+            return;
+        }
+
+        ArrayList<Element> negatives = new ArrayList<>();
+        ArrayList<Element> links = new ArrayList<>();
+        ArrayList<Element> strongs = new ArrayList<>();
+        ArrayList<Element> bolds = new ArrayList<>();
+        ArrayList<Element> italics = new ArrayList<>();
+
+        ArrayDeque<Element> pending = new ArrayDeque<>();
+        pending.push(topNode);
+        while (!pending.isEmpty()) {
+            Element item = pending.pop();
+            if (removeNegatives && nodeScores.isScored(item) && nodeScores.getScore(item) < 1) {
+                negatives.add(item);
+                if (item != topNode) {
+                    continue;
+                }
+            }
+
+            if (convertToText) {
+                String tagName = item.tagName();
+                if (tagName.equalsIgnoreCase("a")) {
+                    links.add(item);
+                } else if (tagName.equalsIgnoreCase("strong")) {
+                    strongs.add(item);
+                } else if (tagName.equalsIgnoreCase("b")) {
+                    bolds.add(item);
+                } else if (tagName.equalsIgnoreCase("i")) {
+                    italics.add(item);
+                }
+            }
+
+            // children go on the stack last first, so they come off in document order
+            for (int i = item.childNodeSize() - 1; i >= 0; i--) {
+                Node child = item.childNode(i);
+                if (child instanceof Element) {
+                    pending.push((Element) child);
+                }
+            }
+        }
+
+        for (Element item : negatives) {
+            nodeStats.invalidate(item);
+            if (item.parentNode() != null) {
+                item.remove();
+            }
+        }
+
+        // one tag after the other, an element inside a replaced one is no longer part of the top node and replacing it changes nothing
+        for (Element item : links) {
+            if (item.getElementsByTag("img").size() == 0) {
+                replaceWithText(item);
+            }
+        }
+        for (Element item : strongs) {
+            replaceWithText(item);
+        }
+        for (Element item : bolds) {
+            replaceWithText(item);
+        }
+        for (Element item : italics) {
+            replaceWithText(item);
+        }
+    }
+
+    private void replaceWithText(Element item) {
+        TextNode tn = new TextNode(item.text(), topNode.baseUri());
+        nodeStats.invalidate(item);
+        item.replaceWith(tn);
+    }
+
+    /**
+     * Removes the paragraphs that would indicate they're some sort of link (the elements with less than 5 stop words) or, for web
+     * views, the empty ones, unless they embed an object. Returns the text of the paragraphs that are left, same as
+     * {@link #getFormattedText()} would after removing them.
+     * <p/>
+     * All of it happens in a single walk over the top node: elements are measured at their tail, when all of their children have been,
+     * and the text of every paragraph is known once the elements inside it have been removed or kept.
+     */
+    private String removeParagraphsAndCollectText(boolean removeOnlyEmpty) {
+        ParagraphCollector collector = new ParagraphCollector(removeOnlyEmpty);
+        new NodeTraversor(collector).traverse(topNode);
+
+        for (Element item : collector.removed) {
+            nodeStats.invalidate(item);
+            if (item.parentNode() != null) {
+                item.remove();
+            }
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (String text : collector.paragraphs) {
+            sb.append(text);
+            sb.append("\n\n");
+        }
+        return sb.toString();
+    }
+
+    private final class ParagraphCollector implements NodeVisitor {
+
+        final boolean removeOnlyEmpty;
+
+        // the text of the top node as it is, which decides what gets removed
+        final TextAccumulator text = new TextAccumulator();
+        final StopWordCounter stopWords;
+
+        // the text without the elements we're removing, which is what the paragraphs print
+        final TextAccumulator keptText = new TextAccumulator();
+
+        // text of the paragraphs in document order, null while a paragraph is still open
+        final ArrayList<String> paragraphs = new ArrayList<>();
+
+        final ArrayList<Element> removed = new ArrayList<>();
+
+        // the elements we're inside of, frames deeper than depth are kept around for reuse
+        final ArrayList<Frame> open = new ArrayList<>();
+        int depth;
+
+        ParagraphCollector(boolean removeOnlyEmpty) {
+            this.removeOnlyEmpty = removeOnlyEmpty;
+            this.stopWords = new StopWordCounter(nodeStats.getStopWords(), text.getText());
+        }
+
+        @Override
+        public void head(Node node, int nodeDepth) {
+            if (node instanceof TextNode) {
+                text.appendText((TextNode) node);
+                keptText.appendText((TextNode) node);
+            } else if (node instanceof Element) {
+                Element element = (Element) node;
+                if (depth == open.size()) {
+                    open.add(new Frame());
+                }
+                Frame frame = open.get(depth++);
+                frame.keptStart = keptText.length();
+                frame.paragraphsBefore = paragraphs.size();
+                frame.hasEmbed = false;
+
+                text.openElement(element);
+                keptText.openElement(element);
+                frame.textStart = text.length();
+                frame.keptTextStart = keptText.length();
+
+                if (element.tagName().equals("p")) {
+                    paragraphs.add(null);
+                }
+            }
+        }
+
+        @Override
+        public void tail(Node node, int nodeDepth) {
+            if (!(node instanceof Element)) {
+                return;
+            }
+
+            Element element = (Element) node;
+            Frame frame = open.get(--depth);
+            String tagName = element.tagName();
+            if (tagName.equalsIgnoreCase("object") || tagName.equalsIgnoreCase("embed")) {
+                frame.hasEmbed = true;
+            }
+            if (depth > 0 && frame.hasEmbed) {
+                open.get(depth - 1).hasEmbed = true;
+            }
+
+            boolean remove = !frame.hasEmbed && hasTooLittleText(frame.textStart);
+            if (remove) {
+                removed.add(element);
+                if (element != topNode) {
+                    keptText.truncate(frame.keptStart);
+                    paragraphs.subList(frame.paragraphsBefore, paragraphs.size()).clear();
+                    return;
+                }
+            }
+
+            // the top node is formatted even when it's taken out of its parent
+            if (tagName.equals("p")) {
+                String text = unescapeHtml(keptText.getTrimmedText(frame.keptTextStart)).trim();
+                paragraphs.set(frame.paragraphsBefore, text);
+            }
+        }
+
+        private boolean hasTooLittleText(int start) {
+            CharSequence chars = text.getText();
+            int end = chars.length();
+            while (start < end && chars.charAt(start) <= ' ') {
+                start++;
+            }
+            while (end > start && chars.charAt(end - 1) <= ' ') {
+                end--;
+            }
+            if (removeOnlyEmpty || start == end) {
+                return start == end;
+            }
+            return stopWords.count(start, end) < 5;
+        }
+    }
+
+    private static final class Frame {
+
+        // where the element starts in the kept text, before the space that may go in front of it
+        int keptStart;
+
+        // where the element's own text starts, in the text and the kept text
+        int textStart;
+        int keptTextStart;
+
+        int paragraphsBefore;
+        boolean hasEmbed;
+    }
+
+    /**
+     * Counts the stop words in any trimmed piece of a text that's still being written, without going over the whole piece. The text is
+     * split into space separated words as it grows, and each finished word is counted once. A piece then only needs to look at its first
+     * and last word, which may be cut in half.
+     */
+    private static final class StopWordCounter {
+
+        private final StopWords stopWords;
+        private final CharSequence text;
+
+        // where each word starts and ends, the end is -1 while the word may still grow
+        private int[] wordStarts = new int[64];
+        private int[] wordEnds = new int[64];
+
+        // the number of stop words among the words before each one, known once the word before it ends
+        private int[] stopWordsBefore = new int[65];
+
+        private int words;
+
+        // how much of the text is split into words
+        private int split;
+
+        StopWordCounter(StopWords stopWords, CharSequence text) {
+            this.stopWords = stopWords;
+            this.text = text;
+        }
+
+        /**
+         * @param start Where the piece starts, not on a space
+         * @param end   Where the piece ends, the char before it isn't a space
+         */
+        int count(int start, int end) {
+            splitWords();
+            int first = wordAt(start);
+            int last = wordAt(end - 1);
+            if (first == last) {
+                if (start == wordStarts[first] && end == wordEnds[first]) {
+                    return stopWordsBefore[first + 1] - stopWordsBefore[first];
+                }
+                return stopWords.countStopWords(text, start, end);
+            }
+
+            int count = stopWordsBefore[last] - stopWordsBefore[first + 1];
+            if (start == wordStarts[first]) {
+                count += stopWordsBefore[first + 1] - stopWordsBefore[first];
+            } else {
+                count += stopWords.countStopWords(text, start, wordEnds[first]);
+            }
+            if (end == wordEnds[last]) {
+                count += stopWordsBefore[last + 1] - stopWordsBefore[last];
+            } else {
+                count += stopWords.countStopWords(text, wordStarts[last], end);
+            }
+            return count;
+        }
+
+        private void splitWords() {
+            int length = text.length();
+            for (int i = split; i < length; i++) {
+                boolean inWord = words > 0 && wordEnds[words - 1] < 0;
+                if (text.charAt(i) == ' ') {
+                    if (inWord) {
+                        int word = words - 1;
+                        wordEnds[word] = i;
+                        stopWordsBefore[words] = stopWordsBefore[word] + stopWords.countStopWords(text, wordStarts[word], i);
+                    }
+                } else if (!inWord) {
+                    if (words == wordStarts.length) {
+                        wordStarts = Arrays.copyOf(wordStarts, words * 2);
+                        wordEnds = Arrays.copyOf(wordEnds, words * 2);
+                        stopWordsBefore = Arrays.copyOf(stopWordsBefore, words * 2 + 1);
+                    }
+                    wordStarts[words] = i;
+                    wordEnds[words] = -1;
+                    words++;
+                }
+            }
+            split = length;
+        }
+
+        /**
+         * @return The word the char at the given position is in
+         */
+        private int wordAt(int position) {
+            int low = 0;
+            int high = words - 1;
+            while (low < high) {
+                int mid = (low + high + 1) >>> 1;
+                if (wordStarts[mid] <= position) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return low;
+        }
+    }
+
+}
@@ -0,0 +1,262 @@
+package me.angrybyte.goose.outputformatters;
+
+import java.util.Arrays;
+
+import me.angrybyte.goose.texthelpers.CharTrie;
+
+/**
+ * The entities of an {@link Entities} instance, laid out so text can be escaped and unescaped without hashing or substrings: entity
+ * names are looked up by char in a table indexed by its high and low byte, and entity names are walked through a trie straight from the
+ * text. Both methods return their input when there's nothing to do.
+ */
+final class EntityTable {
+
+    private static final int PAGE_BITS = 8;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private static final int NO_VALUE = CharTrie.NO_VALUE;
+
+    // builders that grew bigger than this on a long text are dropped instead of kept for the next call
+    private static final int MAX_KEPT_CAPACITY = 16 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUILDERS = new ThreadLocal<StringBuilder>() {
+        @Override
+        protected StringBuilder initialValue() {
+            return new StringBuilder(256);
+        }
+    };
+
+    // the name of char c is namePages[c >> 8][c & 0xFF], pages without any entity are null
+    private final String[][] namePages;
+
+    // the entity names, with their values
+    private final CharTrie names;
+
+    private EntityTable(String[][] namePages, CharTrie names) {
+        this.namePages = namePages;
+        this.names = names;
+    }
+
+    /**
+     * @return The name of the entity for the given char, or {@code null}
+     */
+    String name(char c) {
+        String[] page = namePages[c >>> PAGE_BITS];
+        return page == null ? null : page[c & PAGE_MASK];
+    }
+
+    /**
+     * @return The value of the entity with the given name, or -1
+     */
+    int value(String name) {
+        int node = CharTrie.ROOT;
+        for (int i = 0; i < name.length() && node != CharTrie.NO_MATCH; i++) {
+            node = names.next(node, name.charAt(i));
+        }
+        return names.value(node);
+    }
+
+    /**
+     * @see Entities#escape(String)
+     */
+    String escape(String str) {
+        int len = str.length();
+        int first = 0;
+        while (first < len) {
+            char c = str.charAt(first);
+            if (c > 0x7F || name(c) != null) {
+                break;
+            }
+            first++;
+        }
+        if (first == len) {
+            return str;
+        }
+
+        StringBuilder out = obtainBuilder(len + len / 10);
+        out.append(str, 0, first);
+        for (int i = first; i < len; i++) {
+            char c = str.charAt(i);
+            String entityName = name(c);
+            if (entityName != null) {
+                out.append('&').append(entityName).append(';');
+            } else if (c > 0x7F) {
+                out.append("&#").append((int) c).append(';');
+            } else {
+                out.append(c);
+            }
+        }
+        return release(out);
+    }
+
+    /**
+     * @see Entities#unescape(String)
+     */
+    String unescape(String str) {
+        int firstAmp = str.indexOf('&');
+        if (firstAmp < 0) {
+            return str;
+        }
+
+        int len = str.length();
+        StringBuilder out = obtainBuilder(len);
+        out.append(str, 0, firstAmp);
+        int i = firstAmp;
+        while (i < len) {
+            char c = str.charAt(i);
+            if (c != '&') {
+                out.append(c);
+                i++;
+                continue;
+            }
+
+            // find where the reference ends, walking its name through the trie on the way
+            int node = CharTrie.ROOT;
+            int end = i + 1;
+            char endChar = 0;
+            while (end < len) {
+                endChar = str.charAt(end);
+                if (endChar == ';' || endChar == '&') {
+                    break;
+                }
+                node = names.next(node, endChar);
+                end++;
+            }
+            if (end == len) {
+                // no semicolon left, so none of the remaining ampersands starts a reference
+                out.append(str, i, len);
+                break;
+            }
+            if (endChar == '&') {
+                // the text looks like &...&...;
+                out.append(c);
+                i++;
+                continue;
+            }
+
+            int value;
+            int start = i + 1;
+            if (start == end) {
+                value = NO_VALUE;
+            } else if (str.charAt(start) == '#') {
+                // an escaped number, decimal or hexadecimal
+                if (end - start == 1) {
+                    value = NO_VALUE;
+                } else if (str.charAt(start + 1) == 'x' || str.charAt(start + 1) == 'X') {
+                    value = parseValue(str, start + 2, end, 16);
+                } else {
+                    value = parseValue(str, start + 1, end, 10);
+                }
+            } else {
+                value = names.value(node);
+            }
+
+            if (value == NO_VALUE) {
+                out.append(str, i, end + 1);
+            } else {
+                out.append((char) value);
+            }
+            i = end + 1; // move past the semicolon
+        }
+        return release(out);
+    }
+
+    /**
+     * Reads a number the way {@link Integer#parseInt(String, int)} does, signs and non-ASCII digits included, so references decode the
+     * same as they always have.
+     *
+     * @return The number, or {@link #NO_VALUE} if it's not a number or doesn't fit in a char
+     */
+    private static int parseValue(String str, int start, int end, int radix) {
+        if (start == end) {
+            return NO_VALUE;
+        }
+        int i = start;
+        boolean negative = false;
+        char first = str.charAt(i);
+        if (first < '0') {
+            if (first == '-') {
+                negative = true;
+            } else if (first != '+') {
+                return NO_VALUE;
+            }
+            if (++i == end) {
+                return NO_VALUE;
+            }
+        }
+
+        long magnitude = 0;
+        for (; i < end; i++) {
+            int digit = Character.digit(str.charAt(i), radix);
+            if (digit < 0) {
+                return NO_VALUE;
+            }
+            magnitude = magnitude * radix + digit;
+            if (magnitude > -(long) Integer.MIN_VALUE) {
+                return NO_VALUE;
+            }
+        }
+        if (negative) {
+            // written as a char, like Writer.write(int) used to
+            return (int) -magnitude;
+        }
+        return magnitude > Character.MAX_VALUE ? NO_VALUE : (int) magnitude;
+    }
+
+    private static StringBuilder obtainBuilder(int capacity) {
+        StringBuilder builder = BUILDERS.get();
+        builder.setLength(0);
+        builder.ensureCapacity(capacity);
+        return builder;
+    }
+
+    private static String release(StringBuilder builder) {
+        String result = builder.toString();
+        if (builder.capacity() > MAX_KEPT_CAPACITY) {
+            BUILDERS.remove();
+        }
+        return result;
+    }
+
+    /**
+     * Collects entities in the order they're added, a later entity replaces an earlier one with the same name, and a later name replaces
+     * an earlier one for the same char. Nothing is looked up until the table is built, so filling it is just a couple of array writes.
+     */
+    static final class Builder {
+
+        private String[] names = new String[16];
+        private int[] values = new int[16];
+        private int size;
+
+        void add(String name, int value) {
+            if (size == names.length) {
+                names = Arrays.copyOf(names, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            names[size] = name;
+            values[size] = value;
+            size++;
+        }
+
+        EntityTable build() {
+            String[][] namePages = new String[(Character.MAX_VALUE >> PAGE_BITS) + 1][];
+            CharTrie.Builder trie = new CharTrie.Builder();
+            for (int i = 0; i < size; i++) {
+                String name = names[i];
+                int value = values[i];
+                if (value >= 0 && value <= Character.MAX_VALUE) {
+                    String[] page = namePages[value >>> PAGE_BITS];
+                    if (page == null) {
+                        page = new String[PAGE_SIZE];
+                        namePages[value >>> PAGE_BITS] = page;
+                    }
+                    page[value & PAGE_MASK] = name;
+                }
+                trie.put(name, value);
+            }
+            return new EntityTable(namePages, trie.build());
+        }
+    }
+
+}
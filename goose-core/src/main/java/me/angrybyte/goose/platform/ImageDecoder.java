@@ -0,0 +1,28 @@
+package me.angrybyte.goose.platform;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import me.angrybyte.goose.images.ImageDetails;
+
+/**
+ * Reads the images we download while looking for the top image. Found through {@link java.util.ServiceLoader}, see {@link Platform}.
+ */
+public interface ImageDecoder {
+
+    /**
+     * Reads the dimensions and the mime type of an image file without decoding its pixels.
+     *
+     * @return The details, with a width and height of -1 and no mime type if the file is not an image we can read
+     */
+    ImageDetails getImageDetails(String filePath) throws IOException;
+
+    /**
+     * Decodes an image and writes it out as a JPEG of the best quality.
+     *
+     * @return false if the stream is not an image we can decode, nothing is written then
+     */
+    boolean writeJpeg(InputStream image, OutputStream jpeg) throws IOException;
+
+}
@@ -0,0 +1,91 @@
+package me.angrybyte.goose.platform;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import me.angrybyte.goose.images.ImageDetails;
+
+/**
+ * Reads images with {@link ImageIO}, for plain JVMs
+ */
+final class JavaImageDecoder implements ImageDecoder {
+
+    @Override
+    public ImageDetails getImageDetails(String filePath) throws IOException {
+        ImageDetails details = new ImageDetails();
+        details.setWidth(-1);
+        details.setHeight(-1);
+
+        ImageInputStream input = ImageIO.createImageInputStream(new File(filePath));
+        if (input == null) {
+            return details;
+        }
+        try {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return details;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                details.setWidth(reader.getWidth(0));
+                details.setHeight(reader.getHeight(0));
+                String[] mimeTypes = reader.getOriginatingProvider().getMIMETypes();
+                if (mimeTypes != null && mimeTypes.length > 0) {
+                    details.setMimeType(mimeTypes[0]);
+                }
+            } finally {
+                reader.dispose();
+            }
+            return details;
+        } finally {
+            input.close();
+        }
+    }
+
+    @Override
+    public boolean writeJpeg(InputStream image, OutputStream jpeg) throws IOException {
+        BufferedImage decoded = ImageIO.read(image);
+        if (decoded == null) {
+            return false;
+        }
+
+        // JPEG has no alpha channel, draw the image onto an opaque one first
+        BufferedImage opaque = new BufferedImage(decoded.getWidth(), decoded.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = opaque.createGraphics();
+        try {
+            graphics.drawImage(decoded, 0, 0, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageOutputStream output = ImageIO.createImageOutputStream(jpeg);
+        try {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(1f);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(opaque, null, null), param);
+        } finally {
+            writer.dispose();
+            output.close();
+        }
+        return true;
+    }
+
+}
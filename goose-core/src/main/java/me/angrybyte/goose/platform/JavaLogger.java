@@ -0,0 +1,20 @@
+package me.angrybyte.goose.platform;
+
+import java.util.logging.Level;
+
+/**
+ * Logs through {@link java.util.logging}, with the tag as the logger name
+ */
+final class JavaLogger implements Logger {
+
+    @Override
+    public void warn(String tag, String message, Throwable error) {
+        java.util.logging.Logger.getLogger(tag).log(Level.WARNING, message, error);
+    }
+
+    @Override
+    public void error(String tag, String message, Throwable error) {
+        java.util.logging.Logger.getLogger(tag).log(Level.SEVERE, message, error);
+    }
+
+}
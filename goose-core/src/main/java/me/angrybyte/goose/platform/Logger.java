@@ -0,0 +1,18 @@
+package me.angrybyte.goose.platform;
+
+/**
+ * Where the library logs the problems it works around. Found through {@link java.util.ServiceLoader}, see {@link Platform}.
+ */
+public interface Logger {
+
+    /**
+     * @param error What went wrong, may be {@code null}
+     */
+    void warn(String tag, String message, Throwable error);
+
+    /**
+     * @param error What went wrong, may be {@code null}
+     */
+    void error(String tag, String message, Throwable error);
+
+}
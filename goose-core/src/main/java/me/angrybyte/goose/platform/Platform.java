@@ -0,0 +1,50 @@
+package me.angrybyte.goose.platform;
+
+import java.util.Iterator;
+import java.util.ServiceLoader;
+
+/**
+ * The platform specific parts of the library. The first {@link Logger} and {@link ImageDecoder} listed in
+ * {@code META-INF/services} are used (the Android module lists its own), otherwise the ones that only need a plain JVM.
+ */
+public final class Platform {
+
+    private Platform() {
+    }
+
+    public static Logger getLogger() {
+        return LoggerHolder.LOGGER;
+    }
+
+    public static ImageDecoder getImageDecoder() {
+        return ImageDecoderHolder.IMAGE_DECODER;
+    }
+
+    private static <T> T loadService(Class<T> service) {
+        Iterator<T> services = ServiceLoader.load(service, Platform.class.getClassLoader()).iterator();
+        return services.hasNext() ? services.next() : null;
+    }
+
+    // separate holders, so looking up one doesn't load the default of the other (javax.imageio is not on Android)
+
+    private static final class LoggerHolder {
+
+        static final Logger LOGGER;
+
+        static {
+            Logger logger = loadService(Logger.class);
+            LOGGER = logger == null ? new JavaLogger() : logger;
+        }
+    }
+
+    private static final class ImageDecoderHolder {
+
+        static final ImageDecoder IMAGE_DECODER;
+
+        static {
+            ImageDecoder decoder = loadService(ImageDecoder.class);
+            IMAGE_DECODER = decoder == null ? new JavaImageDecoder() : decoder;
+        }
+    }
+
+}
@@ -0,0 +1,147 @@
+package me.angrybyte.goose.scoring;
+
+import org.jsoup.nodes.Element;
+
+/**
+ * Holds the gravity score and the number of decent child nodes for the elements we score, for one extraction only. This used to live in
+ * {@code gravityScore} and {@code gravityNodes} attributes on the elements themselves, which meant parsing and formatting integers on
+ * every update and leaving bookkeeping attributes in the DOM.
+ * <p/>
+ * Elements are keyed by identity in an open-addressing table of primitive arrays, and remember the order they were first scored in.
+ * Not thread-safe, each extraction has its own.
+ */
+public class NodeScores {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    // scored elements and their values, in the order they were first scored
+    private Element[] nodes = new Element[INITIAL_CAPACITY];
+    private int[] scores = new int[INITIAL_CAPACITY];
+    private int[] counts = new int[INITIAL_CAPACITY];
+    private int size;
+
+    // hash slots holding (index + 1) into the arrays above, 0 means empty. Always at most half full.
+    private int[] slots = new int[INITIAL_CAPACITY * 2];
+
+    /**
+     * Adds a score to the node's current score
+     *
+     * @param addToScore - the score to add to the node
+     */
+    public void addScore(Element node, int addToScore) {
+        int index = indexOf(node, true);
+        scores[index] += addToScore;
+    }
+
+    /**
+     * Adds to how many decent nodes are under this node
+     */
+    public void addNodeCount(Element node, int addToCount) {
+        int index = indexOf(node, true);
+        counts[index] += addToCount;
+    }
+
+    /**
+     * Returns the score of this node, 0 if it was never scored
+     */
+    public int getScore(Element node) {
+        int index = indexOf(node, false);
+        return index < 0 ? 0 : scores[index];
+    }
+
+    /**
+     * Returns how many decent nodes are under this node, 0 if it was never scored
+     */
+    @SuppressWarnings("unused")
+    public int getNodeCount(Element node) {
+        int index = indexOf(node, false);
+        return index < 0 ? 0 : counts[index];
+    }
+
+    /**
+     * Tells whether this node was ever scored, even if its score is 0
+     */
+    public boolean isScored(Element node) {
+        return indexOf(node, false) >= 0;
+    }
+
+    /**
+     * Returns how many nodes were scored
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the scored node at the given position, in the order the nodes were first scored
+     */
+    public Element getNode(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        return nodes[index];
+    }
+
+    private int indexOf(Element node, boolean create) {
+        if (node == null)
+            throw new IllegalArgumentException("Can't score a null node!");
+
+        int mask = slots.length - 1;
+        int slot = hash(node) & mask;
+        while (true) {
+            int entry = slots[slot];
+            if (entry == 0) {
+                break;
+            }
+            if (nodes[entry - 1] == node) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (!create) {
+            return -1;
+        }
+
+        if (size == nodes.length) {
+            grow();
+            return indexOf(node, true);
+        }
+
+        nodes[size] = node;
+        slots[slot] = ++size;
+        return size - 1;
+    }
+
+    private void grow() {
+        int capacity = nodes.length * 2;
+
+        Element[] newNodes = new Element[capacity];
+        System.arraycopy(nodes, 0, newNodes, 0, size);
+        nodes = newNodes;
+
+        int[] newScores = new int[capacity];
+        System.arraycopy(scores, 0, newScores, 0, size);
+        scores = newScores;
+
+        int[] newCounts = new int[capacity];
+        System.arraycopy(counts, 0, newCounts, 0, size);
+        counts = newCounts;
+
+        slots = new int[capacity * 2];
+        int mask = slots.length - 1;
+        for (int i = 0; i < size; i++) {
+            int slot = hash(nodes[i]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = i + 1;
+        }
+    }
+
+    private static int hash(Element node) {
+        // spread the identity hash, the low bits alone cluster badly with linear probing
+        int h = System.identityHashCode(node);
+        return h ^ (h >>> 16);
+    }
+
+}
@@ -0,0 +1,282 @@
+package me.angrybyte.goose.scoring;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.select.Elements;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.NodeVisitor;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import me.angrybyte.goose.texthelpers.StopWords;
+import me.angrybyte.goose.texthelpers.TextAccumulator;
+import me.angrybyte.goose.texthelpers.WordStats;
+
+/**
+ * Remembers the text length, word statistics and link counts of elements for one extraction, so the scorer, the link density checks
+ * and the output formatter don't walk the same subtree with {@link Element#text()} over and over.
+ * <p/>
+ * {@link #scan(Element, String...)} measures a whole tree in one walk. Elements it didn't see are measured when first asked for. An
+ * element's text depends on its whole subtree, so whoever changes the DOM must call {@link #invalidate(Element)} on the node they are
+ * about to remove or replace (or on the parent they are about to add to) - that drops the node and all of its ancestors. Not thread-safe,
+ * each extraction has its own.
+ */
+public class NodeStats {
+
+    private static final class Entry {
+
+        // where the element's text is in the scanned text, only for scanned elements
+        int textStart;
+        int textEnd;
+
+        // spaces written before the element while scanning
+        int spacesBefore;
+
+        int textLength;
+        int spaceSeparatedWords;
+        WordStats wordStats;
+
+        // number of "a" elements in the subtree, element included, and the spaces in their texts. links is -1 until counted
+        int links = -1;
+        int linkSpaces;
+    }
+
+    private final Map<Element, Entry> entries = new IdentityHashMap<>();
+
+    // the stop words of the page's language
+    private final StopWords stopWords;
+
+    // the text of the whole scanned tree, every scanned element's text is a piece of it
+    private CharSequence scannedText;
+
+    /**
+     * Counts English stop words
+     */
+    public NodeStats() {
+        this(StopWords.forLanguage(null));
+    }
+
+    /**
+     * @param stopWords The stop words of the page's language, see {@link StopWords#forLanguage(String)}
+     */
+    public NodeStats(StopWords stopWords) {
+        if (stopWords == null)
+            throw new IllegalArgumentException("stopWords must not be null!");
+        this.stopWords = stopWords;
+    }
+
+    /**
+     * Walks the tree once, measuring every element in it and collecting the elements with the given tags.
+     *
+     * @param root          The tree to measure, usually the whole document
+     * @param candidateTags Tags of the elements to collect
+     * @return All elements with the first tag in document order, followed by all elements with the second tag and so on, the same as
+     * calling {@link Element#getElementsByTag(String)} for each tag
+     */
+    public ArrayList<Element> scan(Element root, String... candidateTags) {
+        entries.clear();
+        TextScanner scanner = new TextScanner(candidateTags);
+        new NodeTraversor(scanner).traverse(root);
+        scannedText = scanner.text;
+
+        ArrayList<Element> candidates = new ArrayList<>();
+        for (ArrayList<Element> tagged : scanner.candidates) {
+            candidates.addAll(tagged);
+        }
+        return candidates;
+    }
+
+    /**
+     * @return The stop words of the page's language
+     */
+    public StopWords getStopWords() {
+        return stopWords;
+    }
+
+    /**
+     * Returns the stop word statistics of the node's text, same as {@link StopWords#getStopWordCount(String)} in the page's language
+     */
+    public WordStats getWordStats(Element node) {
+        Entry entry = getEntry(node);
+        if (entry.wordStats == null) {
+            entry.wordStats = stopWords.getWordStats(scannedText, entry.textStart, entry.textEnd);
+        }
+        return entry.wordStats;
+    }
+
+    /**
+     * Returns the length of the node's text
+     */
+    public int getTextLength(Element node) {
+        return getEntry(node).textLength;
+    }
+
+    /**
+     * Returns how many pieces the node's text splits into on single spaces, which is how link density counts words
+     */
+    public int getSpaceSeparatedWordCount(Element node) {
+        return getEntry(node).spaceSeparatedWords;
+    }
+
+    /**
+     * Returns the number of links in the node, the node itself included
+     */
+    public int getLinkCount(Element node) {
+        return getLinkEntry(node).links;
+    }
+
+    /**
+     * Returns how many pieces the joined texts of all the node's links split into on single spaces
+     */
+    public int getLinkWordCount(Element node) {
+        return getLinkEntry(node).linkSpaces + 1;
+    }
+
+    /**
+     * Forgets what we know about this node and all of its ancestors, call it before changing the node's subtree or removing the node
+     */
+    public void invalidate(Element node) {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        Element current = node;
+        while (current != null) {
+            entries.remove(current);
+            current = current.parent();
+        }
+    }
+
+    private Entry getEntry(Element node) {
+        Entry entry = entries.get(node);
+        if (entry == null) {
+            String text = node.text();
+            entry = new Entry();
+            entry.textLength = text.length();
+            entry.spaceSeparatedWords = countSpaces(text) + 1;
+            entry.wordStats = stopWords.getWordStats(text, 0, text.length());
+            entries.put(node, entry);
+        }
+        return entry;
+    }
+
+    private Entry getLinkEntry(Element node) {
+        Entry entry = getEntry(node);
+        if (entry.links < 0) {
+            Elements links = node.getElementsByTag("a");
+            int linkSpaces = 0;
+            for (Element link : links) {
+                linkSpaces += countSpaces(link.text());
+            }
+            entry.linkSpaces = linkSpaces;
+            entry.links = links.size();
+        }
+        return entry;
+    }
+
+    /**
+     * Trimmed text never starts or ends with a space, so it splits into one piece more than it has spaces (and an empty one into one)
+     */
+    private static int countSpaces(String text) {
+        int spaces = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == ' ') {
+                spaces++;
+            }
+        }
+        return spaces;
+    }
+
+    /**
+     * Builds the text of the whole tree the same way {@link Element#text()} does. An element's text is then its trimmed piece of it, we
+     * only keep track of where the pieces are and how many spaces went in before them.
+     */
+    private final class TextScanner implements NodeVisitor {
+
+        final TextAccumulator accumulator = new TextAccumulator();
+        final CharSequence text = accumulator.getText();
+        final String[] candidateTags;
+        final ArrayList<ArrayList<Element>> candidates;
+
+        // entries of the elements we're inside of
+        final ArrayList<Entry> open = new ArrayList<>();
+
+        TextScanner(String[] candidateTags) {
+            this.candidateTags = candidateTags;
+            this.candidates = new ArrayList<>(candidateTags.length);
+            for (int i = 0; i < candidateTags.length; i++) {
+                candidates.add(new ArrayList<Element>());
+            }
+        }
+
+        @Override
+        public void head(Node node, int depth) {
+            if (node instanceof TextNode) {
+                accumulator.appendText((TextNode) node);
+            } else if (node instanceof Element) {
+                Element element = (Element) node;
+                accumulator.openElement(element);
+
+                String tagName = element.tagName();
+                for (int i = 0; i < candidateTags.length; i++) {
+                    if (candidateTags[i].equals(tagName)) {
+                        candidates.get(i).add(element);
+                    }
+                }
+
+                Entry entry = new Entry();
+                entry.textStart = text.length();
+                entry.spacesBefore = accumulator.getSpaceCount();
+                entry.links = 0;
+                open.add(entry);
+            }
+        }
+
+        @Override
+        public void tail(Node node, int depth) {
+            if (!(node instanceof Element)) {
+                return;
+            }
+
+            Element element = (Element) node;
+            Entry entry = open.remove(open.size() - 1);
+            int elementSpaces = accumulator.getSpaceCount() - entry.spacesBefore;
+
+            // trim the same way String.trim() does
+            int start = entry.textStart;
+            int end = text.length();
+            while (start < end && text.charAt(start) <= ' ') {
+                if (text.charAt(start) == ' ') {
+                    elementSpaces--;
+                }
+                start++;
+            }
+            while (end > start && text.charAt(end - 1) <= ' ') {
+                if (text.charAt(end - 1) == ' ') {
+                    elementSpaces--;
+                }
+                end--;
+            }
+
+            entry.textStart = start;
+            entry.textEnd = end;
+            entry.textLength = end - start;
+            entry.spaceSeparatedWords = elementSpaces + 1;
+            if (element.tagName().equals("a")) {
+                entry.links++;
+                entry.linkSpaces += elementSpaces;
+            }
+            entries.put(element, entry);
+
+            if (!open.isEmpty()) {
+                Entry parent = open.get(open.size() - 1);
+                parent.links += entry.links;
+                parent.linkSpaces += entry.linkSpaces;
+            }
+        }
+    }
+
+}
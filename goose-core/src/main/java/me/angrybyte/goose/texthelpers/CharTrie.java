@@ -0,0 +1,134 @@
+package me.angrybyte.goose.texthelpers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A fixed set of keys with an int value each, stored as a trie in a few flat arrays. Keys are walked one char at a time, so they can be
+ * matched straight from the text without creating a string first:
+ * <pre>
+ * int node = CharTrie.ROOT;
+ * for (each char c of the key) node = trie.next(node, c);
+ * int value = trie.value(node);
+ * </pre>
+ * Build one with a {@link Builder}.
+ */
+public final class CharTrie {
+
+    public static final int ROOT = 0;
+
+    /**
+     * Where {@link #next(int, char)} goes when no key continues with the given char, it never leaves this node
+     */
+    public static final int NO_MATCH = -1;
+
+    /**
+     * The value of nodes in the middle of a key, and of {@link #NO_MATCH}
+     */
+    public static final int NO_VALUE = -1;
+
+    // the edges of node n are edgeChars[firstEdge[n]] to edgeChars[firstEdge[n + 1] - 1], sorted
+    private final int[] firstEdge;
+    private final char[] edgeChars;
+    private final int[] edgeTargets;
+
+    // the value of the key that ends at each node
+    private final int[] nodeValues;
+
+    private CharTrie(int[] firstEdge, char[] edgeChars, int[] edgeTargets, int[] nodeValues) {
+        this.firstEdge = firstEdge;
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.nodeValues = nodeValues;
+    }
+
+    /**
+     * @return The node after the given one for the given char, or {@link #NO_MATCH}
+     */
+    public int next(int node, char c) {
+        if (node == NO_MATCH) {
+            return NO_MATCH;
+        }
+        for (int edge = firstEdge[node], last = firstEdge[node + 1]; edge < last; edge++) {
+            char edgeChar = edgeChars[edge];
+            if (edgeChar == c) {
+                return edgeTargets[edge];
+            }
+            if (edgeChar > c) {
+                break;
+            }
+        }
+        return NO_MATCH;
+    }
+
+    /**
+     * @return The value of the key that ends at the given node, or {@link #NO_VALUE}
+     */
+    public int value(int node) {
+        return node == NO_MATCH ? NO_VALUE : nodeValues[node];
+    }
+
+    /**
+     * Collects the keys, a later value replaces an earlier one for the same key
+     */
+    public static final class Builder {
+
+        private final BuildNode root = new BuildNode();
+
+        public Builder put(String key, int value) {
+            BuildNode node = root;
+            for (int i = 0; i < key.length(); i++) {
+                char c = key.charAt(i);
+                BuildNode child = node.children.get(c);
+                if (child == null) {
+                    child = new BuildNode();
+                    node.children.put(c, child);
+                }
+                node = child;
+            }
+            node.value = value;
+            return this;
+        }
+
+        public CharTrie build() {
+            // number the nodes breadth first, so the edges of each node end up next to each other
+            List<BuildNode> nodes = new ArrayList<>();
+            nodes.add(root);
+            int edgeCount = 0;
+            for (int i = 0; i < nodes.size(); i++) {
+                nodes.addAll(nodes.get(i).children.values());
+                edgeCount += nodes.get(i).children.size();
+            }
+
+            int[] firstEdge = new int[nodes.size() + 1];
+            char[] edgeChars = new char[edgeCount];
+            int[] edgeTargets = new int[edgeCount];
+            int[] nodeValues = new int[nodes.size()];
+
+            int edge = 0;
+            int nextChild = 1;
+            for (int i = 0; i < nodes.size(); i++) {
+                BuildNode node = nodes.get(i);
+                firstEdge[i] = edge;
+                nodeValues[i] = node.value;
+                for (Map.Entry<Character, BuildNode> child : node.children.entrySet()) {
+                    edgeChars[edge] = child.getKey();
+                    edgeTargets[edge] = nextChild++;
+                    edge++;
+                }
+            }
+            firstEdge[nodes.size()] = edge;
+
+            return new CharTrie(firstEdge, edgeChars, edgeTargets, nodeValues);
+        }
+    }
+
+    private static final class BuildNode {
+
+        final Map<Character, BuildNode> children = new TreeMap<>();
+        int value = NO_VALUE;
+    }
+
+}
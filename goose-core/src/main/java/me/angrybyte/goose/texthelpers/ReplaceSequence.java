@@ -50,6 +50,9 @@ import java.util.regex.Pattern;
  * Use of this class can improve performance if the sequence of replacements is intended to be used repeatedly throughout the life of an
  * application.<br/>
  * This is due to the fact that each {@link Pattern} is only compiled once and each {@link Matcher} is only generated once.
+ * <p/>
+ * Patterns that are plain text or match single characters don't use a regex at all, see {@link StringReplacement}. Consecutive single
+ * character replacements are merged into one, so for example "\n" to "\n\n" followed by removing "\t" is a single scan of the input.
  */
 public class ReplaceSequence {
 
@@ -94,6 +97,7 @@ public class ReplaceSequence {
      */
     public ReplaceSequence append(String pattern, String replaceWith) {
         replacements.add(StringReplacement.compile(pattern, replaceWith));
+        passes = mergeReplacements(replacements);
         return this;
     }
 
@@ -106,7 +110,7 @@ public class ReplaceSequence {
     public String replaceAll(String input) {
         if (string.isNullOrEmpty(input))
             return string.empty;
-        for (StringReplacement rp : replacements) {
+        for (StringReplacement rp : passes) {
             input = rp.replaceAll(input);
         }
 
@@ -116,8 +120,32 @@ public class ReplaceSequence {
     // shhhhh... it's private!
     private List<StringReplacement> replacements = new ArrayList<>();
 
+    // the replacements with the character replacements next to each other merged, this is what actually runs
+    private List<StringReplacement> passes;
+
     private ReplaceSequence(StringReplacement pair) {
         replacements.add(pair);
+        passes = mergeReplacements(replacements);
+    }
+
+    private static List<StringReplacement> mergeReplacements(List<StringReplacement> replacements) {
+        List<StringReplacement> passes = new ArrayList<>();
+        List<StringReplacement> characterReplacements = new ArrayList<>();
+        for (StringReplacement replacement : replacements) {
+            if (replacement.isCharacterReplacement()) {
+                characterReplacements.add(replacement);
+                continue;
+            }
+            if (!characterReplacements.isEmpty()) {
+                passes.add(StringReplacement.merge(characterReplacements));
+                characterReplacements.clear();
+            }
+            passes.add(replacement);
+        }
+        if (!characterReplacements.isEmpty()) {
+            passes.add(StringReplacement.merge(characterReplacements));
+        }
+        return passes;
     }
 
 }
@@ -0,0 +1,371 @@
+/**
+ * Licensed to Gravity.com under one or more contributor license agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. Gravity.com licenses this file to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package me.angrybyte.goose.texthelpers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * Helps with finding places where to stop searching. Check usages for examples.
+ * <p/>
+ * There's a table of stop words per language, get one with {@link #forLanguage(String)}. English is built in, other languages are
+ * loaded from the {@code stopwords/<language>.txt} resources next to this class the first time a page in that language shows up. The
+ * static methods use English.
+ */
+public class StopWords {
+
+    public static final String DEFAULT_LANGUAGE = "en";
+
+    // language subtags we look for in the resources, anything else is English
+    private static final Pattern LANGUAGE_CODE = Pattern.compile("[a-z]{2,3}");
+
+    // the loaded tables, languages we have no table for map to English so we only look for their resource once
+    private static final ConcurrentMap<String, StopWords> TABLES = new ConcurrentHashMap<>();
+
+    /**
+     * English is only built when first used, like the others
+     */
+    private static final class English {
+
+        static final StopWords STOP_WORDS = new StopWords(DEFAULT_LANGUAGE, WordTrie.build(Arrays.asList(getWords())));
+    }
+
+    /**
+     * The built in English stop words, package-private so the benchmarks can build the old hash set from them
+     */
+    static String[] getWords() {
+        return new String[] { // @formatter:off
+            "a's", "able", "about", "above", "according", "accordingly", "across",
+            "actually", "after", "afterwards", "again", "against", "ain't", "all",
+            "allow", "allows", "almost", "alone", "along", "already", "also",
+            "although", "always", "am", "among", "amongst", "an", "and",
+            "another", "any", "anybody", "anyhow", "anyone", "anything", "anyway",
+            "anyways", "anywhere", "apart", "appear", "appreciate", "appropriate", "are",
+            "aren't", "around", "as", "aside", "ask", "asking", "associated",
+            "at", "available", "away", "awfully", "be", "became", "because",
+            "become", "becomes", "becoming", "been", "before", "beforehand", "behind",
+            "being", "believe", "below", "beside", "besides", "best", "better",
+            "between", "beyond", "both", "brief", "but", "by", "c",
+            "c'mon", "c's", "came", "campaign", "can", "can't", "cannot",
+            "cant", "cause", "causes", "certain", "certainly", "changes", "clearly",
+            "co", "com", "come", "comes", "concerning", "consequently", "consider",
+            "considering", "contain", "containing", "contains", "corresponding", "could", "couldn't",
+            "course", "currently", "definitely", "described", "despite", "did", "didn't",
+            "different", "do", "does", "doesn't", "doing", "don't", "done",
+            "down", "downwards", "during", "each", "edu", "eight", "either",
+            "else", "elsewhere", "enough", "endorsed", "entirely", "especially", "et",
+            "etc", "even", "ever", "every", "everybody", "everyone", "everything",
+            "everywhere", "ex", "exactly", "example", "except", "far", "few",
+            "fifth", "first", "financial", "five", "followed", "following", "follows",
+            "for", "former", "formerly", "forth", "four", "from", "further",
+            "furthermore", "get", "gets", "getting", "given", "gives", "go",
+            "goes", "going", "gone", "got", "gotten", "greetings", "had",
+            "hadn't", "happens", "hardly", "has", "hasn't", "have", "haven't",
+            "having", "he", "he's", "hello", "help", "hence", "her",
+            "here", "here's", "hereafter", "hereby", "herein", "hereupon", "hers",
+            "herself", "hi", "him", "himself", "his", "hither", "hopefully",
+            "how", "howbeit", "however", "i'd", "i'll", "i'm", "i've",
+            "ie", "if", "ignored", "immediate", "in", "inasmuch", "inc",
+            "indeed", "indicate", "indicated", "indicates", "inner", "insofar", "instead",
+            "into", "inward", "is", "isn't", "it", "it'd", "it'll",
+            "it's", "its", "itself", "just", "keep", "keeps", "kept",
+            "know", "knows", "known", "last", "lately", "later", "latter",
+            "latterly", "least", "less", "lest", "let", "let's", "like",
+            "liked", "likely", "little", "look", "looking", "looks", "ltd",
+            "mainly", "many", "may", "maybe", "me", "mean", "meanwhile",
+            "merely", "might", "more", "moreover", "most", "mostly", "much",
+            "must", "my", "myself", "name", "namely", "nd", "near",
+            "nearly", "necessary", "need", "needs", "neither", "never", "nevertheless",
+            "new", "next", "nine", "no", "nobody", "non", "none",
+            "noone", "nor", "normally", "not", "nothing", "novel", "now",
+            "nowhere", "obviously", "of", "off", "often", "oh", "ok",
+            "okay", "old", "on", "once", "one", "ones", "only",
+            "onto", "or", "other", "others", "otherwise", "ought", "our",
+            "ours", "ourselves", "out", "outside", "over", "overall", "own",
+            "particular", "particularly", "per", "perhaps", "placed", "please", "plus",
+            "possible", "presumably", "probably", "provides", "quite", "quote", "quarterly",
+            "rather", "really", "reasonably", "regarding", "regardless", "regards", "relatively",
+            "respectively", "right", "said", "same", "saw", "say", "saying",
+            "says", "second", "secondly", "see", "seeing", "seem", "seemed",
+            "seeming", "seems", "seen", "self", "selves", "sensible", "sent",
+            "serious", "seriously", "seven", "several", "shall", "she", "should",
+            "shouldn't", "since", "six", "so", "some", "somebody", "somehow",
+            "someone", "something", "sometime", "sometimes", "somewhat", "somewhere", "soon",
+            "sorry", "specified", "specify", "specifying", "still", "sub", "such",
+            "sup", "sure", "t's", "take", "taken", "tell", "tends",
+            "than", "thank", "thanks", "thanx", "that", "that's", "thats",
+            "the", "their", "theirs", "them", "themselves", "then", "thence",
+            "there", "there's", "thereafter", "thereby", "therefore", "therein", "theres",
+            "thereupon", "these", "they", "they'd", "they'll", "they're", "they've",
+            "think", "third", "this", "thorough", "thoroughly", "those", "though",
+            "three", "through", "throughout", "thru", "thus", "to", "together",
+            "too", "took", "toward", "towards", "tried", "tries", "truly",
+            "try", "trying", "twice", "two", "under", "unfortunately", "unless",
+            "unlikely", "until", "unto", "up", "upon", "us", "use",
+            "used", "useful", "uses", "using", "usually", "uucp", "value",
+            "various", "very", "via", "viz", "vs", "want", "wants",
+            "was", "wasn't", "way", "we", "we'd", "we'll", "we're",
+            "we've", "welcome", "well", "went", "were", "weren't", "what",
+            "what's", "whatever", "when", "whence", "whenever", "where", "where's",
+            "whereafter", "whereas", "whereby", "wherein", "whereupon", "wherever", "whether",
+            "which", "while", "whither", "who", "who's", "whoever", "whole",
+            "whom", "whose", "why", "will", "willing", "wish", "with",
+            "within", "without", "won't", "wonder", "would", "would", "wouldn't",
+            "yes", "yet", "you", "you'd", "you'll", "you're", "you've",
+            "your", "yours", "yourself", "yourselves", "zero", "official", "sharply", "criticized"
+        }; // @formatter:on
+    }
+
+    private final String language;
+
+    /**
+     * Looked up straight from the text, ignoring case
+     */
+    private final WordTrie stopWords;
+
+    private StopWords(String language, WordTrie stopWords) {
+        this.language = language;
+        this.stopWords = stopWords;
+    }
+
+    /**
+     * Finds the stop words of the given language, loading them if this is the first time we need them.
+     *
+     * @param language An ISO 639 language code or a language tag like "pt-BR", only the language part counts. Can be {@code null}
+     * @return The stop words of the language, English if we have none for it
+     */
+    public static StopWords forLanguage(String language) {
+        if (language == null) {
+            return English.STOP_WORDS;
+        }
+
+        String code = language.trim().toLowerCase(Locale.ENGLISH);
+        int separator = indexOfSeparator(code);
+        if (separator != -1) {
+            code = code.substring(0, separator);
+        }
+        if (code.equals(DEFAULT_LANGUAGE) || !LANGUAGE_CODE.matcher(code).matches()) {
+            return English.STOP_WORDS;
+        }
+
+        StopWords table = TABLES.get(code);
+        if (table == null) {
+            table = load(code);
+            StopWords existing = TABLES.putIfAbsent(code, table);
+            if (existing != null) {
+                table = existing;
+            }
+        }
+        return table;
+    }
+
+    private static int indexOfSeparator(String languageTag) {
+        for (int i = 0; i < languageTag.length(); i++) {
+            char c = languageTag.charAt(i);
+            if (c == '-' || c == '_') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reads a stop word resource: UTF-8, one lower case word per line, lines starting with '#' are comments
+     */
+    private static StopWords load(String language) {
+        InputStream in = StopWords.class.getResourceAsStream("stopwords/" + language + ".txt");
+        if (in == null) {
+            return English.STOP_WORDS;
+        }
+
+        List<String> words = new ArrayList<>();
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new InputStreamReader(in, "UTF-8"));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && line.charAt(0) != '#') {
+                    words.add(line);
+                }
+            }
+        } catch (IOException e) {
+            return English.STOP_WORDS;
+        } finally {
+            try {
+                if (reader != null) {
+                    reader.close();
+                } else {
+                    in.close();
+                }
+            } catch (IOException ignored) {
+            }
+        }
+        return new StopWords(language, WordTrie.build(words));
+    }
+
+    /**
+     * @return The language of these stop words, an ISO 639 code like "en"
+     */
+    public String getLanguage() {
+        return language;
+    }
+
+    // the confusing pattern below is basically just match any non-word character excluding white-space.
+    private static final StringReplacement PUNCTUATION = StringReplacement.compile("[^\\p{Ll}\\p{Lu}\\p{Lt}\\p{Lo}\\p{Nd}\\p{Pc}\\s]", string.empty);
+
+    public static String removePunctuation(String str) {
+        return PUNCTUATION.replaceAll(str);
+    }
+
+    /**
+     * Counts the English stop words in the given text
+     */
+    public static WordStats getStopWordCount(String content) {
+        if (string.isNullOrEmpty(content)) return WordStats.EMPTY;
+        return English.STOP_WORDS.getWordStats(content, 0, content.length());
+    }
+
+    /**
+     * Same as {@link #getStopWordCount(String)} for a piece of the given text and these stop words, without copying the text. The list of
+     * stop words is only built if somebody asks the returned stats for it, so keep the text unchanged while the stats are in use.
+     */
+    public WordStats getWordStats(CharSequence content, int start, int end) {
+        if (start == end) return WordStats.EMPTY;
+
+        long counts = scan(content, start, end, null);
+        return new WordStats(wordCount(counts), stopWordCount(counts), this, content, start, end);
+    }
+
+    /**
+     * @return true if the given piece of text is a stop word, in any case
+     */
+    public boolean isStopWord(CharSequence word, int start, int end) {
+        return stopWords.contains(word, start, end);
+    }
+
+    /**
+     * Counts the stop words in a piece of the given text, the same way {@link #getStopWordCount(String)} does, but without copying the
+     * text or creating a string per word.
+     */
+    public int countStopWords(CharSequence content, int start, int end) {
+        if (start == end) return 0;
+        return stopWordCount(scan(content, start, end, null));
+    }
+
+    /**
+     * Lists the stop words in a piece of the given text, lower cased, in the order they appear
+     */
+    List<String> collectStopWords(CharSequence content, int start, int end) {
+        List<String> stopWords = new ArrayList<>();
+        if (start != end) {
+            scan(content, start, end, stopWords);
+        }
+        return stopWords;
+    }
+
+    /**
+     * Single pass version of removing the punctuation, splitting the rest on spaces and looking up each lower cased word. Punctuation is
+     * dropped as we go, so "don't" is still the single word "dont". Each word walks the stop word trie while we read it, so nothing is
+     * copied.
+     *
+     * @param found Gets the stop words we find, can be {@code null} if we only need to count them
+     * @return The word count in the upper and the stop word count in the lower 32 bits
+     */
+    private long scan(CharSequence content, int start, int end, List<String> found) {
+        // where the current word got to in the trie, and whether there's a current word at all
+        int node = WordTrie.ROOT;
+        boolean inWord = false;
+
+        int spaces = 0;
+        int wordCount = 0;
+        int stopWordCount = 0;
+
+        int i = start;
+        while (i <= end) {
+            int codePoint;
+            if (i == end) {
+                // a space after the last word flushes it, but doesn't count as a separator
+                codePoint = ' ';
+            } else {
+                codePoint = Character.codePointAt(content, i);
+                if (!isWordCharacter(codePoint)) {
+                    i += Character.charCount(codePoint);
+                    continue;
+                }
+            }
+
+            if (codePoint == ' ') {
+                if (inWord && stopWords.isWord(node)) {
+                    stopWordCount++;
+                    if (found != null) {
+                        found.add(stopWords.getWord(node));
+                    }
+                }
+                node = WordTrie.ROOT;
+                inWord = false;
+                if (i < end) {
+                    spaces++;
+                }
+                i++;
+                continue;
+            }
+
+            // like splitting the text, trailing empty words don't count and a text without spaces is always a single word
+            wordCount = spaces + 1;
+            inWord = true;
+            node = stopWords.next(node, codePoint);
+            i += Character.charCount(codePoint);
+        }
+
+        if (spaces == 0) {
+            wordCount = 1;
+        }
+        return ((long) wordCount << 32) | stopWordCount;
+    }
+
+    private static int wordCount(long counts) {
+        return (int) (counts >>> 32);
+    }
+
+    private static int stopWordCount(long counts) {
+        return (int) counts;
+    }
+
+    /**
+     * Everything {@link #removePunctuation(String)} keeps: letters, digits, connectors like '_' and white space
+     */
+    private static boolean isWordCharacter(int codePoint) {
+        switch (Character.getType(codePoint)) {
+            case Character.LOWERCASE_LETTER:
+            case Character.UPPERCASE_LETTER:
+            case Character.TITLECASE_LETTER:
+            case Character.OTHER_LETTER:
+            case Character.DECIMAL_DIGIT_NUMBER:
+            case Character.CONNECTOR_PUNCTUATION:
+                return true;
+            default:
+                return codePoint == ' ' || codePoint == '\t' || codePoint == '\n' || codePoint == '\u000B' || codePoint == '\f'
+                        || codePoint == '\r';
+        }
+    }
+
+}
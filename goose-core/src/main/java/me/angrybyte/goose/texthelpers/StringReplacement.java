@@ -0,0 +1,291 @@
+/**
+ * Licensed to Gravity.com under one or more contributor license agreements.  See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Gravity.com licenses this file to you under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package me.angrybyte.goose.texthelpers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Helps to replace strings within other strings.
+ * <p/>
+ * Patterns that are plain text (like "#!") are replaced with a simple search, and patterns that match a single character (like "\t" or
+ * "[\r\n]") with a single scan, so only patterns that really need it go through the regex engine. Inputs without a match are returned
+ * as they are.
+ */
+public class StringReplacement {
+
+    // regex characters that make a pattern more than plain text when they're not escaped
+    private static final String META_CHARACTERS = "\\^$.|?*+()[]{}";
+
+    private final Pattern pattern;
+    private final String replaceWith;
+
+    // the text the pattern matches if it's plain text, null otherwise
+    private final String literal;
+
+    // if the pattern matches single characters: the inclusive character ranges of each rule, and what the rule's characters become
+    private final char[][] ruleRanges;
+    private final String[] ruleReplacements;
+    // the first rule matching each ASCII character, -1 if none does
+    private final byte[] asciiRules;
+
+    private StringReplacement(Pattern pattern, String replaceWith, String literal) {
+        this.pattern = pattern;
+        this.replaceWith = replaceWith;
+        this.literal = literal;
+        this.ruleRanges = null;
+        this.ruleReplacements = null;
+        this.asciiRules = null;
+    }
+
+    private StringReplacement(char[][] ruleRanges, String[] ruleReplacements) {
+        this.pattern = null;
+        this.replaceWith = null;
+        this.literal = null;
+        this.ruleRanges = ruleRanges;
+        this.ruleReplacements = ruleReplacements;
+
+        asciiRules = new byte[128];
+        for (char c = 0; c < asciiRules.length; c++) {
+            asciiRules[c] = (byte) findRule(c);
+        }
+    }
+
+    public static StringReplacement compile(String pattern, String replaceWith) {
+        if (string.isNullOrEmpty(pattern)) throw new IllegalArgumentException("Patterns must not be null or empty!");
+
+        // '$' and '\' mean something in regex replacements
+        if (replaceWith.indexOf('$') == -1 && replaceWith.indexOf('\\') == -1) {
+            char[] ranges = parseCharacterClass(pattern);
+            if (ranges == null) {
+                String literal = parseLiteral(pattern);
+                if (literal != null && literal.length() == 1 && !isSurrogate(literal.charAt(0))) {
+                    ranges = new char[] {literal.charAt(0), literal.charAt(0)};
+                } else if (literal != null) {
+                    return new StringReplacement(null, replaceWith, literal);
+                }
+            }
+            if (ranges != null) {
+                return new StringReplacement(new char[][] {ranges}, new String[] {replaceWith});
+            }
+        }
+
+        Pattern p = Pattern.compile(pattern);
+        return new StringReplacement(p, replaceWith, null);
+    }
+
+    public String replaceAll(String input) {
+        if (string.isNullOrEmpty(input)) return string.empty;
+        if (literal != null) return replaceLiteral(input);
+        if (ruleRanges != null) return replaceCharacters(input);
+        return pattern.matcher(input).replaceAll(replaceWith);
+    }
+
+    /**
+     * @return true if this replaces single characters, so it can be {@link #merge(List) merged} with others that do
+     */
+    boolean isCharacterReplacement() {
+        return ruleRanges != null;
+    }
+
+    /**
+     * Merges character replacements that run one after the other into one that makes a single pass. Each character is replaced by the
+     * first replacement that matches it, and its replacement text goes through the replacements after it when merging, so the result is
+     * the same as running them in order.
+     *
+     * @param replacements Character replacements, in the order they should run
+     */
+    static StringReplacement merge(List<StringReplacement> replacements) {
+        List<char[]> ranges = new ArrayList<>();
+        List<String> rules = new ArrayList<>();
+        for (StringReplacement replacement : replacements) {
+            if (!replacement.isCharacterReplacement())
+                throw new IllegalArgumentException("Only character replacements can be merged!");
+            for (int i = 0; i < replacement.ruleRanges.length; i++) {
+                ranges.add(replacement.ruleRanges[i]);
+                rules.add(replacement.ruleReplacements[i]);
+            }
+        }
+
+        char[][] ruleRanges = ranges.toArray(new char[ranges.size()][]);
+        String[] ruleReplacements = rules.toArray(new String[rules.size()]);
+
+        // the last rule's replacement is final, every other one goes through the (already final) rules after it
+        for (int rule = ruleReplacements.length - 2; rule >= 0; rule--) {
+            StringReplacement rest = new StringReplacement(Arrays.copyOfRange(ruleRanges, rule + 1, ruleRanges.length),
+                    Arrays.copyOfRange(ruleReplacements, rule + 1, ruleReplacements.length));
+            ruleReplacements[rule] = rest.replaceCharacters(ruleReplacements[rule]);
+        }
+        return new StringReplacement(ruleRanges, ruleReplacements);
+    }
+
+    private String replaceLiteral(String input) {
+        int index = input.indexOf(literal);
+        if (index == -1) {
+            return input;
+        }
+
+        StringBuilder out = new StringBuilder(input.length() + 16);
+        int from = 0;
+        do {
+            out.append(input, from, index).append(replaceWith);
+            from = index + literal.length();
+            index = input.indexOf(literal, from);
+        } while (index != -1);
+        return out.append(input, from, input.length()).toString();
+    }
+
+    private String replaceCharacters(String input) {
+        StringBuilder out = null;
+        int length = input.length();
+        for (int i = 0; i < length; i++) {
+            char c = input.charAt(i);
+            int rule;
+            if (c < 128) {
+                rule = asciiRules[c];
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(input.charAt(i + 1))) {
+                // the regex would see a single character outside of all our ranges
+                if (out != null) {
+                    out.append(c).append(input.charAt(i + 1));
+                }
+                i++;
+                continue;
+            } else {
+                rule = findRule(c);
+            }
+
+            if (rule != -1) {
+                if (out == null) {
+                    out = new StringBuilder(length + 16);
+                    out.append(input, 0, i);
+                }
+                out.append(ruleReplacements[rule]);
+            } else if (out != null) {
+                out.append(c);
+            }
+        }
+        return out == null ? input : out.toString();
+    }
+
+    private int findRule(char c) {
+        for (int rule = 0; rule < ruleRanges.length; rule++) {
+            char[] ranges = ruleRanges[rule];
+            for (int i = 0; i < ranges.length; i += 2) {
+                if (c >= ranges[i] && c <= ranges[i + 1]) {
+                    return rule;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return The text the regex matches if it's plain text with nothing but escaped special characters, null if it's more than that
+     */
+    static String parseLiteral(String regex) {
+        StringBuilder literal = new StringBuilder(regex.length());
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                int escaped = parseEscape(regex, ++i);
+                if (escaped == -1) {
+                    return null;
+                }
+                literal.append((char) escaped);
+            } else if (META_CHARACTERS.indexOf(c) != -1 || isSurrogate(c)) {
+                return null;
+            } else {
+                literal.append(c);
+            }
+        }
+        return literal.toString();
+    }
+
+    /**
+     * @return Inclusive from and to pairs of the characters a class like "[abc]" or "[\t\r\n]" matches, null for anything more complex
+     * like negated, nested or predefined classes
+     */
+    private static char[] parseCharacterClass(String regex) {
+        int last = regex.length() - 1;
+        if (last < 2 || regex.charAt(0) != '[' || regex.charAt(last) != ']' || regex.charAt(1) == '^') {
+            return null;
+        }
+
+        StringBuilder ranges = new StringBuilder();
+        int i = 1;
+        while (i < last) {
+            int from = parseClassCharacter(regex, i);
+            if (from == -1) {
+                return null;
+            }
+            i += regex.charAt(i) == '\\' ? 2 : 1;
+
+            int to = from;
+            if (i + 1 < last && regex.charAt(i) == '-') {
+                to = parseClassCharacter(regex, i + 1);
+                if (to == -1 || to < from) {
+                    return null;
+                }
+                i += regex.charAt(i + 1) == '\\' ? 3 : 2;
+            }
+            ranges.append((char) from).append((char) to);
+        }
+
+        char[] result = new char[ranges.length()];
+        ranges.getChars(0, result.length, result, 0);
+        return result;
+    }
+
+    private static int parseClassCharacter(String regex, int index) {
+        char c = regex.charAt(index);
+        if (c == '\\') {
+            return parseEscape(regex, index + 1);
+        }
+        if (c == '[' || c == ']' || c == '&' || isSurrogate(c)) {
+            return -1;
+        }
+        return c;
+    }
+
+    /**
+     * @return The character an escape like "\t" or "\." stands for, -1 if it's a class, a back reference or anything else
+     */
+    private static int parseEscape(String regex, int index) {
+        if (index >= regex.length()) {
+            return -1;
+        }
+
+        char c = regex.charAt(index);
+        switch (c) {
+            case 't':
+                return '\t';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 'f':
+                return '\f';
+            case 'a':
+                return '\u0007';
+            case 'e':
+                return '\u001B';
+            default:
+                return Character.isLetterOrDigit(c) || isSurrogate(c) ? -1 : c;
+        }
+    }
+
+    private static boolean isSurrogate(char c) {
+        return c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE;
+    }
+}
@@ -0,0 +1,204 @@
+/**
+ * Licensed to Gravity.com under one or more contributor license agreements.  See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Gravity.com licenses this file to you under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package me.angrybyte.goose.texthelpers;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Helps to split strings.
+ * <p/>
+ * Separators that are plain text (like " - " or "\\|") are found with a simple search instead of a regex. If you only need to count
+ * the pieces or look at them one at a time, use {@link #count(CharSequence)} or {@link #pieces(CharSequence)}, neither creates the
+ * pieces as strings.
+ */
+public class StringSplitter {
+
+    // null if the separator is plain text
+    private final Pattern pattern;
+
+    // the plain text separator, null if it needs the regex
+    private final String separator;
+
+    public StringSplitter(String pattern) {
+        String literal = string.isNullOrEmpty(pattern) ? null : StringReplacement.parseLiteral(pattern);
+        this.separator = string.isNullOrEmpty(literal) ? null : literal;
+        this.pattern = separator == null ? Pattern.compile(pattern) : null;
+    }
+
+    public String[] split(String input) {
+        if (string.isNullOrEmpty(input)) return string.emptyArray;
+        if (separator == null) return pattern.split(input);
+
+        String[] result = new String[count(input)];
+        Pieces pieces = new Pieces(input);
+        for (int i = 0; i < result.length && pieces.next(); i++) {
+            result[i] = input.substring(pieces.start(), pieces.end());
+        }
+        return result;
+    }
+
+    /**
+     * @return How many pieces {@link #split(String)} would return for this input
+     */
+    public int count(CharSequence input) {
+        if (input == null || input.length() == 0) return 1;
+
+        int count = 0;
+        int lastNonEmpty = -1;
+        if (separator != null) {
+            // the common case, counted without creating anything
+            int start = 0;
+            int index;
+            while ((index = indexOf(input, separator, start)) != -1) {
+                if (index > start) {
+                    lastNonEmpty = count;
+                }
+                count++;
+                start = index + separator.length();
+            }
+            if (input.length() > start) {
+                lastNonEmpty = count;
+            }
+            count++;
+        } else {
+            Pieces pieces = new Pieces(input);
+            while (pieces.next()) {
+                if (pieces.end() > pieces.start()) {
+                    lastNonEmpty = count;
+                }
+                count++;
+            }
+        }
+
+        // like split, a single piece is returned as it is, otherwise trailing empty pieces are dropped
+        return count == 1 ? 1 : lastNonEmpty + 1;
+    }
+
+    /**
+     * Goes through the pieces of the input one at a time. Unlike {@link #split(String)} this also returns empty pieces at the end.
+     */
+    public Pieces pieces(CharSequence input) {
+        if (input == null)
+            throw new IllegalArgumentException("input must not be null!");
+        return new Pieces(input);
+    }
+
+    /**
+     * Where the pieces of an input are, one at a time:
+     * <pre>
+     * StringSplitter.Pieces pieces = splitter.pieces(text);
+     * while (pieces.next()) {
+     *     // the piece is text.subSequence(pieces.start(), pieces.end())
+     * }
+     * </pre>
+     */
+    public final class Pieces {
+
+        private final CharSequence input;
+        private final Matcher matcher;
+
+        private int start;
+        private int end;
+
+        // where the piece after this one starts, -1 after the last piece
+        private int next;
+
+        private Pieces(CharSequence input) {
+            this.input = input;
+            this.matcher = separator == null ? pattern.matcher(input) : null;
+        }
+
+        /**
+         * Moves to the next piece
+         *
+         * @return false if there are no more pieces
+         */
+        public boolean next() {
+            if (next == -1) {
+                return false;
+            }
+
+            start = next;
+            int separatorStart;
+            int separatorEnd;
+            if (separator != null) {
+                separatorStart = indexOf(input, separator, start);
+                separatorEnd = separatorStart + separator.length();
+            } else {
+                separatorStart = -1;
+                separatorEnd = -1;
+                while (matcher.find()) {
+                    // like split, an empty match at the very beginning doesn't make an empty first piece
+                    if (matcher.end() == 0) {
+                        continue;
+                    }
+                    separatorStart = matcher.start();
+                    separatorEnd = matcher.end();
+                    break;
+                }
+            }
+
+            if (separatorStart == -1) {
+                end = input.length();
+                next = -1;
+            } else {
+                end = separatorStart;
+                next = separatorEnd;
+            }
+            return true;
+        }
+
+        /**
+         * @return Index of the first character of the current piece
+         */
+        public int start() {
+            return start;
+        }
+
+        /**
+         * @return Index after the last character of the current piece
+         */
+        public int end() {
+            return end;
+        }
+
+        /**
+         * @return The current piece
+         */
+        public CharSequence get() {
+            return input.subSequence(start, end);
+        }
+    }
+
+    private static int indexOf(CharSequence input, String separator, int from) {
+        if (input instanceof String) {
+            return ((String) input).indexOf(separator, from);
+        }
+
+        char first = separator.charAt(0);
+        int last = input.length() - separator.length();
+        for (int i = from; i <= last; i++) {
+            if (input.charAt(i) != first) {
+                continue;
+            }
+            int j = 1;
+            while (j < separator.length() && input.charAt(i + j) == separator.charAt(j)) {
+                j++;
+            }
+            if (j == separator.length()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,117 @@
+package me.angrybyte.goose.texthelpers;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+
+/**
+ * Builds the text of a tree the same way {@link Element#text()} does, one node at a time, so a single walk can measure every element in
+ * it: the text of an element is the trimmed piece written between its head and its tail. Call {@link #openElement(Element)} at the head
+ * of every element and {@link #appendText(TextNode)} for every text node, in document order.
+ */
+public final class TextAccumulator {
+
+    private final StringBuilder text = new StringBuilder();
+
+    // number of spaces in the text
+    private int spaces;
+
+    /**
+     * Writes the space that goes before block elements and line breaks, if there's text before them that doesn't end with one
+     */
+    public void openElement(Element element) {
+        if (text.length() > 0 && (element.isBlock() || element.tagName().equals("br")) && !lastCharIsSpace()) {
+            append(' ');
+        }
+    }
+
+    public void appendText(TextNode textNode) {
+        String wholeText = textNode.getWholeText();
+        if (preservesWhitespace(textNode.parent())) {
+            for (int i = 0; i < wholeText.length(); i++) {
+                append(wholeText.charAt(i));
+            }
+            return;
+        }
+
+        // collapse whitespace like StringUtil.appendNormalisedWhitespace()
+        boolean stripLeading = lastCharIsSpace();
+        boolean lastWasWhite = false;
+        boolean reachedNonWhite = false;
+        for (int i = 0; i < wholeText.length(); i++) {
+            char c = wholeText.charAt(i);
+            if (c == ' ' || c == '\t' || c == '\n' || c == '\f' || c == '\r') {
+                if ((stripLeading && !reachedNonWhite) || lastWasWhite) {
+                    continue;
+                }
+                append(' ');
+                lastWasWhite = true;
+            } else {
+                append(c);
+                lastWasWhite = false;
+                reachedNonWhite = true;
+            }
+        }
+    }
+
+    /**
+     * @return Everything written so far, it keeps changing as more is written
+     */
+    public CharSequence getText() {
+        return text;
+    }
+
+    public int length() {
+        return text.length();
+    }
+
+    public int getSpaceCount() {
+        return spaces;
+    }
+
+    /**
+     * Throws away everything written after the given length, as if the nodes that wrote it weren't in the tree
+     */
+    public void truncate(int length) {
+        for (int i = length; i < text.length(); i++) {
+            if (text.charAt(i) == ' ') {
+                spaces--;
+            }
+        }
+        text.setLength(length);
+    }
+
+    /**
+     * @return The text written from the given position on, trimmed like {@link String#trim()}
+     */
+    public String getTrimmedText(int start) {
+        int end = text.length();
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return text.substring(start, end);
+    }
+
+    private boolean preservesWhitespace(Node node) {
+        if (node instanceof Element) {
+            Element element = (Element) node;
+            return element.tag().preserveWhitespace() || element.parent() != null && element.parent().tag().preserveWhitespace();
+        }
+        return false;
+    }
+
+    private boolean lastCharIsSpace() {
+        return text.length() != 0 && text.charAt(text.length() - 1) == ' ';
+    }
+
+    private void append(char c) {
+        if (c == ' ') {
+            spaces++;
+        }
+        text.append(c);
+    }
+
+}
@@ -32,17 +32,43 @@ public class WordStats {
     private int wordCount = 0;
 
     /**
-     * Holds an actual list of the stop words we found
+     * Holds an actual list of the stop words we found, built from the text below when first asked for
      */
-    private List<String> stopWords = new ArrayList<>();
+    private List<String> stopWords;
+
+    // the stop words and the text we counted, until the stop word list is built
+    private StopWords language;
+    private CharSequence text;
+    private int textStart;
+    private int textEnd;
+
+    public WordStats() {
+        stopWords = new ArrayList<>();
+    }
+
+    WordStats(int wordCount, int stopWordCount, StopWords language, CharSequence text, int textStart, int textEnd) {
+        this.wordCount = wordCount;
+        this.stopWordCount = stopWordCount;
+        this.language = language;
+        this.text = text;
+        this.textStart = textStart;
+        this.textEnd = textEnd;
+    }
 
     @SuppressWarnings("unused")
     public List<String> getStopWords() {
+        if (stopWords == null) {
+            stopWords = language.collectStopWords(text, textStart, textEnd);
+            language = null;
+            text = null;
+        }
         return stopWords;
     }
 
     public void setStopWords(List<String> stopWords) {
         this.stopWords = stopWords;
+        this.language = null;
+        this.text = null;
     }
 
     public int getStopWordCount() {
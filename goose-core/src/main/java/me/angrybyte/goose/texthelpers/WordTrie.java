@@ -0,0 +1,80 @@
+package me.angrybyte.goose.texthelpers;
+
+import java.util.Collection;
+
+/**
+ * A fixed set of lower case words, stored in a {@link CharTrie}. Words are looked up one character at a time, ignoring case, so they can
+ * be matched straight from the text without creating a string first:
+ * <pre>
+ * int node = WordTrie.ROOT;
+ * for (each character c of the word) node = trie.next(node, c);
+ * boolean found = trie.isWord(node);
+ * </pre>
+ */
+final class WordTrie {
+
+    static final int ROOT = CharTrie.ROOT;
+
+    /**
+     * Where {@link #next(int, int)} goes when no word continues with the given character, it never leaves this node
+     */
+    static final int NO_MATCH = CharTrie.NO_MATCH;
+
+    // the value of the node a word ends at is its index here
+    private final CharTrie trie;
+    private final String[] words;
+
+    private WordTrie(CharTrie trie, String[] words) {
+        this.trie = trie;
+        this.words = words;
+    }
+
+    /**
+     * @param words Lower case words, duplicates are fine
+     */
+    static WordTrie build(Collection<String> words) {
+        String[] wordArray = words.toArray(new String[words.size()]);
+        CharTrie.Builder builder = new CharTrie.Builder();
+        for (int i = 0; i < wordArray.length; i++) {
+            builder.put(wordArray[i], i);
+        }
+        return new WordTrie(builder.build(), wordArray);
+    }
+
+    /**
+     * @return The node after the given one for the given character in any case, or {@link #NO_MATCH}
+     */
+    int next(int node, int codePoint) {
+        // the dotted capital I lower cases to two chars in String.toLowerCase(), so it never matches
+        if (codePoint > Character.MAX_VALUE || codePoint == '\u0130') {
+            return NO_MATCH;
+        }
+        return trie.next(node, (char) Character.toLowerCase(codePoint));
+    }
+
+    boolean isWord(int node) {
+        return trie.value(node) != CharTrie.NO_VALUE;
+    }
+
+    /**
+     * @return The word that ends at the given node, or {@code null}
+     */
+    String getWord(int node) {
+        int index = trie.value(node);
+        return index == CharTrie.NO_VALUE ? null : words[index];
+    }
+
+    /**
+     * @return true if the given piece of text is one of the words, in any case
+     */
+    boolean contains(CharSequence text, int start, int end) {
+        int node = ROOT;
+        for (int i = start; i < end && node != NO_MATCH; ) {
+            int codePoint = Character.codePointAt(text, i);
+            node = next(node, codePoint);
+            i += Character.charCount(codePoint);
+        }
+        return isWord(node);
+    }
+
+}
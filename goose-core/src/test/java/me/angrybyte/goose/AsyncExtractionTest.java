@@ -0,0 +1,150 @@
+package me.angrybyte.goose;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Whatever happens to an async extraction, its future completes, once
+ */
+public class AsyncExtractionTest {
+
+    private static final String URL = "http://www.example.com/article.html";
+    private static final String HTML = "<html><head><title>An article</title></head><body><p>The committee said on Tuesday that it "
+            + "would not be able to reach a decision before the end of the month.</p></body></html>";
+
+    @Rule
+    public TemporaryFolder cacheDirectory = new TemporaryFolder();
+
+    private Configuration config;
+    private ExecutorService networkExecutor;
+    private ExecutorService cpuExecutor;
+    private final AtomicInteger callbacks = new AtomicInteger();
+    private final CountDownLatch called = new CountDownLatch(1);
+
+    @Before
+    public void setUp() {
+        networkExecutor = Executors.newFixedThreadPool(2);
+        cpuExecutor = Executors.newFixedThreadPool(2);
+
+        config = new Configuration(cacheDirectory.getRoot().getAbsolutePath());
+        config.setEnableImageFetching(false);
+        config.setNetworkExecutor(networkExecutor);
+        config.setCpuExecutor(cpuExecutor);
+    }
+
+    @After
+    public void tearDown() {
+        networkExecutor.shutdownNow();
+        cpuExecutor.shutdownNow();
+    }
+
+    @Test(timeout = 10000)
+    public void extractsTheArticle() throws Exception {
+        Article article = extract().get();
+        assertNotNull(article);
+        assertEquals("An article", article.getTitle());
+        // the future is completed right before the callback is called
+        assertTrue(called.await(5, TimeUnit.SECONDS));
+        assertEquals(1, callbacks.get());
+    }
+
+    @Test(timeout = 10000)
+    public void failingStagesGiveTheArticleSoFar() throws Exception {
+        config.getExtractionPipeline().add(new ThrowingStage(false, new IllegalStateException("A broken stage")));
+
+        Article article = extract().get();
+        assertNotNull(article);
+        assertEquals("An article", article.getTitle());
+        assertTrue(called.await(5, TimeUnit.SECONDS));
+        assertEquals(1, callbacks.get());
+    }
+
+    @Test(timeout = 10000)
+    public void errorsInCpuStagesFailTheExtraction() throws Exception {
+        config.getExtractionPipeline().add(new ThrowingStage(false, new StackOverflowError()));
+        assertFailsWith(StackOverflowError.class, extract());
+    }
+
+    @Test(timeout = 10000)
+    public void errorsInNetworkStagesFailTheExtraction() throws Exception {
+        config.getExtractionPipeline().add(new ThrowingStage(true, new OutOfMemoryError()));
+        assertFailsWith(OutOfMemoryError.class, extract());
+    }
+
+    @Test(timeout = 10000)
+    public void rejectedExtractionsFail() throws Exception {
+        config.setCpuExecutor(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                throw new RejectedExecutionException("Full");
+            }
+        });
+        assertFailsWith(RejectedExecutionException.class, extract());
+    }
+
+    private Future<Article> extract() {
+        return new ContentExtractor(config).extractContentAsync(URL, HTML, false, new ExtractionCallback() {
+            @Override
+            public void onArticleExtracted(String url, Article article) {
+                callbacks.incrementAndGet();
+                called.countDown();
+            }
+        });
+    }
+
+    private void assertFailsWith(Class<? extends Throwable> failure, Future<Article> future) throws Exception {
+        try {
+            Article article = future.get(5, TimeUnit.SECONDS);
+            fail("Extracted " + article + " instead of failing");
+        } catch (ExecutionException e) {
+            assertTrue("Failed with " + e.getCause(), failure.isInstance(e.getCause()));
+        }
+        assertTrue(future.isDone());
+        assertEquals("The callback was called", 0, callbacks.get());
+    }
+
+    private static final class ThrowingStage extends ExtractionStage {
+
+        private final boolean networkBound;
+        private final Throwable failure;
+
+        ThrowingStage(boolean networkBound, Throwable failure) {
+            super(failure.getClass().getSimpleName());
+            this.networkBound = networkBound;
+            this.failure = failure;
+        }
+
+        @Override
+        public boolean isNetworkBound() {
+            return networkBound;
+        }
+
+        @Override
+        public void process(ExtractionContext context) throws Exception {
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            throw (Exception) failure;
+        }
+
+    }
+
+}
@@ -0,0 +1,87 @@
+package me.angrybyte.goose;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Batches that don't run to the end, nothing listens on port 1 so the pages are never downloaded
+ */
+public class BatchExtractionTest {
+
+    private static final List<String> URLS = Arrays.asList("http://localhost:1/a.html", "http://localhost:1/b.html",
+            "http://localhost:1/c.html");
+
+    @Rule
+    public TemporaryFolder cacheDirectory = new TemporaryFolder();
+
+    private Configuration config;
+
+    @Before
+    public void setUp() {
+        config = new Configuration(cacheDirectory.getRoot().getAbsolutePath());
+        config.setEnableImageFetching(false);
+        config.setMaxParallelExtractions(1);
+    }
+
+    @After
+    public void tearDown() {
+        // the interrupted status must not leak into other tests
+        Thread.interrupted();
+    }
+
+    @Test(timeout = 30000)
+    public void errorsCloseTheBatch() {
+        final AtomicInteger extractions = new AtomicInteger();
+        config.setExtractionListener(new ExtractionListener() {
+            @Override
+            public void onExtractionFinished(ExtractionMetrics metrics) {
+                extractions.incrementAndGet();
+                throw new StackOverflowError();
+            }
+        });
+
+        BatchExtraction batch = new ContentExtractor(config).extractAll(URLS, false);
+        try {
+            batch.hasNext();
+            fail("The error was swallowed");
+        } catch (StackOverflowError expected) {
+            // the batch gave up
+        }
+
+        assertFalse(batch.hasNext());
+        assertFalse(batch.isInterrupted());
+        assertEquals(1, extractions.get());
+    }
+
+    @Test(timeout = 30000)
+    public void interruptsCutTheBatchShort() {
+        BatchExtraction batch = new ContentExtractor(config).extractAll(URLS, false);
+        Thread.currentThread().interrupt();
+
+        assertFalse(batch.hasNext());
+        assertTrue(batch.isInterrupted());
+        assertTrue(Thread.currentThread().isInterrupted());
+    }
+
+    @Test(timeout = 30000)
+    public void finishedBatchesArentInterrupted() {
+        BatchExtraction batch = new ContentExtractor(config).extractAll(URLS, false);
+
+        // none of the pages can be downloaded, so none of them make it
+        assertFalse(batch.hasNext());
+        assertFalse(batch.isInterrupted());
+    }
+
+}
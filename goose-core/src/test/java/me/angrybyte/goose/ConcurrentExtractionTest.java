@@ -0,0 +1,156 @@
+package me.angrybyte.goose;
+
+import org.jsoup.nodes.Element;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import me.angrybyte.goose.texthelpers.string;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * Extracts the fixture pages with a single {@link ContentExtractor} on many threads at once. Every thread has to get the same articles the
+ * pages give when they're extracted one at a time.
+ */
+public class ConcurrentExtractionTest {
+
+    private static final String[] SITES = {"bbc", "wired", "verge", "cnet", "pcmag", "business_insider"};
+    private static final boolean[] FOR_WEB_VIEW = {false, true};
+
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 10;
+
+    @Rule
+    public TemporaryFolder cacheDirectory = new TemporaryFolder();
+
+    private ContentExtractor extractor;
+    private String[] pages;
+
+    @Before
+    public void setUp() throws IOException {
+        Configuration config = new Configuration(cacheDirectory.getRoot().getAbsolutePath());
+        config.setEnableImageFetching(false);
+        extractor = new ContentExtractor(config);
+
+        pages = new String[SITES.length];
+        for (int i = 0; i < SITES.length; i++) {
+            pages[i] = readFixture(SITES[i]);
+        }
+    }
+
+    @Test(timeout = 300000)
+    public void sharedExtractorGivesTheSingleThreadedArticles() throws Exception {
+        final String[][] expected = new String[SITES.length][FOR_WEB_VIEW.length];
+        for (int i = 0; i < SITES.length; i++) {
+            for (int j = 0; j < FOR_WEB_VIEW.length; j++) {
+                Article article = extractor.extractContent(url(SITES[i]), pages[i], FOR_WEB_VIEW[j]);
+                assertNotNull(SITES[i], article);
+                assertFalse(SITES[i] + " has no text", string.isNullOrEmpty(article.getCleanedArticleText()));
+                expected[i][j] = describe(article);
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<String>>> results = new ArrayList<>(THREADS);
+        try {
+            for (int thread = 0; thread < THREADS; thread++) {
+                final int offset = thread;
+                results.add(executor.submit(new Callable<List<String>>() {
+                    @Override
+                    public List<String> call() throws Exception {
+                        start.await();
+
+                        // every thread starts on a different page, so different pages are extracted at the same time
+                        List<String> mismatches = new ArrayList<>();
+                        for (int round = 0; round < ROUNDS; round++) {
+                            for (int k = 0; k < SITES.length; k++) {
+                                int i = (k + offset) % SITES.length;
+                                int j = (round + offset) % FOR_WEB_VIEW.length;
+                                Article article = extractor.extractContent(url(SITES[i]), pages[i], FOR_WEB_VIEW[j]);
+                                if (article == null || !expected[i][j].equals(describe(article))) {
+                                    mismatches.add(SITES[i] + (FOR_WEB_VIEW[j] ? " for a web view" : "") + " in round " + round);
+                                }
+                            }
+                        }
+                        return mismatches;
+                    }
+                }));
+            }
+            start.countDown();
+
+            List<String> mismatches = new ArrayList<>();
+            for (Future<List<String>> result : results) {
+                mismatches.addAll(result.get());
+            }
+            assertEquals("Articles that came out different", new ArrayList<String>(), mismatches);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return Everything the extraction found, in a form that can be compared
+     */
+    private static String describe(Article article) {
+        StringBuilder description = new StringBuilder();
+        description.append("title: ").append(article.getTitle()).append('\n');
+        description.append("meta description: ").append(article.getMetaDescription()).append('\n');
+        description.append("meta keywords: ").append(article.getMetaKeywords()).append('\n');
+        description.append("canonical link: ").append(article.getCanonicalLink()).append('\n');
+        description.append("domain: ").append(article.getDomain()).append('\n');
+        description.append("publish date: ").append(article.getPublishDate()).append('\n');
+        description.append("tags: ").append(article.getTags() == null ? null : new TreeSet<>(article.getTags())).append('\n');
+        description.append("top image: ").append(article.getTopImage() == null ? null : article.getTopImage().getImageSrc()).append('\n');
+        description.append("movies:");
+        if (article.getMovies() != null) {
+            for (Element movie : article.getMovies()) {
+                description.append(' ').append(movie.attr("src"));
+            }
+        }
+        description.append('\n');
+        description.append("additional data: ").append(article.getAdditionalData()).append('\n');
+        description.append("skipped stages: ").append(article.getSkippedStages()).append('\n');
+        description.append("top node: ").append(article.getTopNode() == null ? null : article.getTopNode().outerHtml()).append('\n');
+        description.append("text: ").append(article.getCleanedArticleText());
+        return description.toString();
+    }
+
+    private static String url(String site) {
+        return "http://www.example.com/" + site + ".html";
+    }
+
+    private static String readFixture(String site) throws IOException {
+        InputStream in = ConcurrentExtractionTest.class.getResourceAsStream("fixtures/" + site + ".html");
+        assertNotNull("No fixture for " + site, in);
+
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toString("UTF-8");
+        } finally {
+            in.close();
+        }
+    }
+
+}
@@ -0,0 +1,87 @@
+package me.angrybyte.goose.cleaners;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import me.angrybyte.goose.Article;
+import me.angrybyte.goose.Configuration;
+import me.angrybyte.goose.ContentExtractor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Divs and spans are converted to paragraphs without going through their html where that can be helped. The expected outputs are what
+ * the cleaner made when it still re-parsed the html of every div, they must not change.
+ */
+public class DefaultDocumentCleanerTest {
+
+    private static final String PARAGRAPH = "<p>The committee said on Tuesday that it would not be able to reach a decision before the end of the "
+            + "month, and that the members were still waiting for the report that had been promised to them by the agency.</p>";
+    private static final String INNER_TEXT = "inner span text that should only be here once and not twice in the output";
+
+    @Rule
+    public TemporaryFolder cacheDirectory = new TemporaryFolder();
+
+    @Test
+    public void nestedSpansAreConvertedOnce() {
+        assertEquals("<p><p>Outer span text, <span>inner span text</span> tail.</p></p>",
+                clean("<div><span>Outer span text, <span>inner span text</span> tail.</span></div>"));
+    }
+
+    @Test
+    public void spansInConvertedDivsAreConvertedOnce() {
+        assertEquals("<p>Outer div text, \n<p>a span <span>in a span</span></p> tail.</p>",
+                clean("<div>Outer div text, <span>a span <span>in a span</span></span> tail.</div>"));
+    }
+
+    @Test
+    public void whitespaceOfTextOnlyDivsIsCollapsed() {
+        assertEquals("<p>Text with some whitespace</p>", clean("<div>\n  Text   with\tsome\n whitespace  </div>"));
+    }
+
+    @Test
+    public void textNextToBlocksIsParsedAsHtml() {
+        assertEquals("<div><p>Text after it, 5 &lt; 6 and <b>bold</b>.</p><p>A paragraph.</p></div>",
+                clean("<div><p>A paragraph.</p>Text after it, 5 &lt; 6 and &lt;b&gt;bold&lt;/b&gt;.</div>"));
+    }
+
+    @Test
+    public void linksBeforeTextNextToBlocksAreCopied() {
+        assertEquals("<div><p><a href=\"/x\">A link</a> and the text after it.</p><p>A paragraph.</p><a href=\"/x\">A link</a></div>",
+                clean("<div><p>A paragraph.</p><a href=\"/x\">A link</a> and the text after it.</div>"));
+    }
+
+    @Test
+    public void nestedSpansDontBecomeParagraphsOfTheirOwn() {
+        String html = "<html><head><title>Nested spans</title></head><body><div id=\"article\">" + PARAGRAPH + PARAGRAPH + PARAGRAPH
+                + "<div><span>Outer text that is in the outer span and it was there for all of the people who read it, <span>" + INNER_TEXT
+                + "</span> tail of the outer one.</span></div>" + PARAGRAPH + PARAGRAPH + "</div></body></html>";
+
+        Configuration config = new Configuration(cacheDirectory.getRoot().getAbsolutePath());
+        config.setEnableImageFetching(false);
+        Article article = new ContentExtractor(config).extractContent("http://www.example.com/nested.html", html, false);
+        assertNotNull(article);
+
+        String text = article.getCleanedArticleText();
+        assertTrue("The inner span text isn't in the article: " + text, text.contains(INNER_TEXT));
+        for (String paragraph : text.split("\n\n")) {
+            assertNotEquals("The inner span text is a paragraph of its own: " + text, INNER_TEXT, paragraph.trim());
+        }
+    }
+
+    /**
+     * @return The html of the cleaned body, not pretty printed
+     */
+    private static String clean(String bodyHtml) {
+        Document doc = new DefaultDocumentCleaner().clean(Jsoup.parse(bodyHtml, "http://www.example.com/"));
+        doc.outputSettings().prettyPrint(false);
+        return doc.body().html();
+    }
+
+}
@@ -0,0 +1,188 @@
+package me.angrybyte.goose.outputformatters;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Escaping and unescaping through the lookup tables must give what the old writer based implementation gave, which is kept here as the
+ * reference, on top of maps of the HTML 4.0 entities where a later entry replaces an earlier one
+ */
+public class EntitiesTest {
+
+    private static final String[][] BASIC_ARRAY = {{"quot", "34"}, {"amp", "38"}, {"lt", "60"}, {"gt", "62"}};
+
+    // entity names, parts of references, and the numbers and digits that Integer.parseInt takes or doesn't
+    private static final String[] TOKENS = {"&", "&", "&", ";", ";", "#", "#", "x", "X", "0", "1", "6", "9", "-", "+", "\u0661", "amp",
+            "lt", "gt", "quot", "nbsp", "eacute", "euro", "Amp", "apos", "e", " ", "65", "x41", "X2f", "FFFF", "65535", "65536", "99999",
+            "2147483648", "\u00e9", "\u00a0", "\u20ac", "\u0430", "\ud83d\ude00", "\ud83d", "<", "\"", "'"};
+
+    private static final int STRINGS = 400000;
+
+    private final Map<String, Integer> values = new HashMap<>();
+    private final Map<Integer, String> names = new HashMap<>();
+
+    public EntitiesTest() {
+        for (String[][] entities : new String[][][] {BASIC_ARRAY, Entities.ISO8859_1_ARRAY, Entities.HTML40_ARRAY}) {
+            for (String[] entity : entities) {
+                int value = Integer.parseInt(entity[1]);
+                values.put(entity[0], value);
+                names.put(value, entity[0]);
+            }
+        }
+    }
+
+    @Test
+    public void stringsAreEscapedAndUnescapedAsBefore() {
+        Random random = new Random(18);
+        for (int i = 0; i < STRINGS; i++) {
+            StringBuilder text = new StringBuilder();
+            for (int j = 0, length = random.nextInt(16); j < length; j++) {
+                text.append(TOKENS[random.nextInt(TOKENS.length)]);
+            }
+            String input = text.toString();
+
+            assertEquals("Unescaping " + input, unescape(input), Entities.HTML40.unescape(input));
+            assertEquals("Escaping " + input, escape(input), Entities.HTML40.escape(input));
+        }
+    }
+
+    @Test
+    public void everyCharIsEscapedAndUnescapedAsBefore() {
+        for (int c = Character.MIN_VALUE; c <= Character.MAX_VALUE; c++) {
+            String input = String.valueOf((char) c);
+            String escaped = escape(input);
+            assertEquals(escaped, Entities.HTML40.escape(input));
+            assertEquals(input, Entities.HTML40.unescape(escaped));
+            assertEquals(names.get(c), Entities.HTML40.entityName(c));
+        }
+    }
+
+    @Test
+    public void namesAndValuesAreTheOnesAdded() {
+        for (Map.Entry<String, Integer> entity : values.entrySet()) {
+            assertEquals(entity.getKey(), entity.getValue().intValue(), Entities.HTML40.entityValue(entity.getKey()));
+        }
+        assertEquals(-1, Entities.HTML40.entityValue("apos"));
+        assertEquals(-1, Entities.HTML40.entityValue("Amp"));
+        assertEquals(-1, Entities.HTML40.entityValue(""));
+        assertEquals(39, Entities.XML.entityValue("apos"));
+        assertNull(Entities.HTML40.entityName(-1));
+        assertNull(Entities.HTML40.entityName(0x10000 + '&'));
+    }
+
+    @Test
+    public void entitiesAddedLaterAreUsed() {
+        Entities entities = new Entities();
+        entities.addEntity("foo", 0xA1);
+        assertEquals("&foo;", entities.escape("\u00a1"));
+
+        entities.addEntity("bar", 0xA1);
+        assertEquals("&bar;", entities.escape("\u00a1"));
+        assertEquals("\u00a1\u00a1", entities.unescape("&foo;&bar;"));
+    }
+
+    @Test
+    public void stringsWithNothingToDoAreReturnedAsTheyAre() {
+        String plain = "Nothing to escape here";
+        assertSame(plain, Entities.HTML40.escape(plain));
+        assertSame(plain, Entities.HTML40.unescape(plain));
+
+        String unknown = "Fish &chips; & peas";
+        assertEquals(unknown, Entities.HTML40.unescape(unknown));
+    }
+
+    /**
+     * What the writer based escape always gave
+     */
+    private String escape(String str) {
+        StringBuilder writer = new StringBuilder();
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            String entityName = names.get((int) c);
+            if (entityName == null) {
+                if (c > 0x7F) {
+                    writer.append("&#").append(Integer.toString(c, 10)).append(';');
+                } else {
+                    writer.append(c);
+                }
+            } else {
+                writer.append('&').append(entityName).append(';');
+            }
+        }
+        return writer.toString();
+    }
+
+    /**
+     * What the writer based unescape always gave, with its Integer.parseInt quirks
+     */
+    private String unescape(String str) {
+        int firstAmp = str.indexOf('&');
+        if (firstAmp < 0) {
+            return str;
+        }
+        StringBuilder writer = new StringBuilder(str.substring(0, firstAmp));
+        int len = str.length();
+        for (int i = firstAmp; i < len; i++) {
+            char c = str.charAt(i);
+            if (c == '&') {
+                int nextIdx = i + 1;
+                int semiColonIdx = str.indexOf(';', nextIdx);
+                if (semiColonIdx == -1) {
+                    writer.append(c);
+                    continue;
+                }
+                int amphersandIdx = str.indexOf('&', i + 1);
+                if (amphersandIdx != -1 && amphersandIdx < semiColonIdx) {
+                    writer.append(c);
+                    continue;
+                }
+                String entityContent = str.substring(nextIdx, semiColonIdx);
+                int entityValue = -1;
+                int entityContentLen = entityContent.length();
+                if (entityContentLen > 0) {
+                    if (entityContent.charAt(0) == '#') {
+                        if (entityContentLen > 1) {
+                            char isHexChar = entityContent.charAt(1);
+                            try {
+                                switch (isHexChar) {
+                                    case 'X':
+                                    case 'x':
+                                        entityValue = Integer.parseInt(entityContent.substring(2), 16);
+                                        break;
+                                    default:
+                                        entityValue = Integer.parseInt(entityContent.substring(1), 10);
+                                }
+                                if (entityValue > 0xFFFF) {
+                                    entityValue = -1;
+                                }
+                            } catch (NumberFormatException e) {
+                                entityValue = -1;
+                            }
+                        }
+                    } else {
+                        Integer value = values.get(entityContent);
+                        entityValue = value == null ? -1 : value;
+                    }
+                }
+
+                if (entityValue == -1) {
+                    writer.append('&').append(entityContent).append(';');
+                } else {
+                    writer.append((char) entityValue);
+                }
+                i = semiColonIdx;
+            } else {
+                writer.append(c);
+            }
+        }
+        return writer.toString();
+    }
+
+}
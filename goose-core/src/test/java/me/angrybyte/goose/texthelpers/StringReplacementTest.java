@@ -0,0 +1,167 @@
+package me.angrybyte.goose.texthelpers;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Replacements that skip the regex engine, and sequences that merge them, must give what running every pattern through
+ * {@link Pattern#matcher(CharSequence)} in order gives
+ */
+public class StringReplacementTest {
+
+    private static final String[] REGEX_PATTERNS = {"\\s+", "a+", "[^a]", "^\\s+$", "(ab)", "a|b", "\\s", ".", "[a-c&&b]", "\\p{L}",
+            "[\\s]", "\\."};
+    private static final String[] PLAIN_CHARACTERS = {"a", "b", "c", " ", ";", "#", "\u00e9", "\u00a0"};
+    private static final String[] ESCAPED_CHARACTERS = {"\\.", "\\|", "\\-", "\\&", "\\t", "\\n", "\\r", "\\\\", "\\]", "\\e"};
+    private static final String[] INPUT_CHARACTERS = {"a", "b", "c", " ", "\t", "\n", "\r", ".", "|", "-", "&", ";", "#", "\\", "]",
+            "\u00e9", "\u00a0", "\u001b", "\ud83d\ude00", "\ud83d"};
+    private static final String[] REPLACEMENT_CHARACTERS = {"a", "b", "x", " ", "\t", "\n", ".", "|", "&", ";", "\u00e9"};
+
+    private static final int SEQUENCES = 20000;
+    private static final int INPUTS_PER_SEQUENCE = 10;
+
+    @Test
+    public void sequencesGiveWhatTheRegexesGiveInOrder() {
+        Random random = new Random(16);
+        for (int i = 0; i < SEQUENCES; i++) {
+            int ruleCount = 1 + random.nextInt(4);
+            List<String[]> rules = new ArrayList<>(ruleCount);
+            for (int rule = 0; rule < ruleCount; rule++) {
+                rules.add(new String[] {randomPattern(random), randomReplacement(random)});
+            }
+
+            ReplaceSequence sequence = ReplaceSequence.create(rules.get(0)[0], rules.get(0)[1]);
+            for (int rule = 1; rule < ruleCount; rule++) {
+                sequence.append(rules.get(rule)[0], rules.get(rule)[1]);
+            }
+
+            for (int j = 0; j < INPUTS_PER_SEQUENCE; j++) {
+                String input = randomText(random, INPUT_CHARACTERS, 12);
+                assertEquals("Replacing " + describe(rules) + " in " + escape(input), replaceInOrder(rules, input),
+                        sequence.replaceAll(input));
+            }
+        }
+    }
+
+    @Test
+    public void mergedReplacementsGoThroughTheRulesAfterThem() {
+        // the new lines of the first rule are replaced by the second one, the tab isn't
+        ReplaceSequence sequence = ReplaceSequence.create("\\t", "\n").append("\n", "x");
+        assertEquals("axxb", sequence.replaceAll("a\n\tb"));
+
+        sequence = ReplaceSequence.create("\n", "\n\n").append("\t").append("[ab]", "\t");
+        assertEquals("\t\n\n\t", sequence.replaceAll("a\n\tb"));
+    }
+
+    @Test
+    public void inputsWithoutMatchesAreReturnedAsTheyAre() {
+        String input = "Nothing to replace here";
+        assertSame(input, StringReplacement.compile("#!", "").replaceAll(input));
+        assertSame(input, StringReplacement.compile("[\\r\\n]", " ").replaceAll(input));
+        assertSame(input, ReplaceSequence.create("\n", "\n\n").append("\t").replaceAll(input));
+    }
+
+    @Test
+    public void literalsAreOnlyPlainText() {
+        assertEquals("#!", StringReplacement.parseLiteral("#!"));
+        assertEquals("a.b|c", StringReplacement.parseLiteral("a\\.b\\|c"));
+        assertEquals("\t\n", StringReplacement.parseLiteral("\\t\\n"));
+        assertEquals(null, StringReplacement.parseLiteral("a.b"));
+        assertEquals(null, StringReplacement.parseLiteral("\\s"));
+        assertEquals(null, StringReplacement.parseLiteral("a+"));
+        assertEquals(null, StringReplacement.parseLiteral("\\1"));
+    }
+
+    /**
+     * What replacing the rules one after the other always gave
+     */
+    private static String replaceInOrder(List<String[]> rules, String input) {
+        if (input.isEmpty()) {
+            return input;
+        }
+        for (String[] rule : rules) {
+            input = input.isEmpty() ? input : Pattern.compile(rule[0]).matcher(input).replaceAll(rule[1]);
+        }
+        return input;
+    }
+
+    private static String randomPattern(Random random) {
+        switch (random.nextInt(4)) {
+            case 0:
+                return REGEX_PATTERNS[random.nextInt(REGEX_PATTERNS.length)];
+            case 1:
+                // a character class, maybe with a range
+                StringBuilder characterClass = new StringBuilder("[");
+                for (int i = 0, count = 1 + random.nextInt(3); i < count; i++) {
+                    switch (random.nextInt(3)) {
+                        case 0:
+                            characterClass.append(PLAIN_CHARACTERS[random.nextInt(PLAIN_CHARACTERS.length)]);
+                            break;
+                        case 1:
+                            characterClass.append(ESCAPED_CHARACTERS[random.nextInt(ESCAPED_CHARACTERS.length)]);
+                            break;
+                        default:
+                            characterClass.append(random.nextBoolean() ? "a-c" : "\\t-\\r");
+                    }
+                }
+                return characterClass.append(']').toString();
+            default:
+                // plain text, a single character about half of the time
+                StringBuilder literal = new StringBuilder();
+                for (int i = 0, count = random.nextBoolean() ? 1 : 2 + random.nextInt(2); i < count; i++) {
+                    literal.append(random.nextBoolean() ? PLAIN_CHARACTERS[random.nextInt(PLAIN_CHARACTERS.length)]
+                            : ESCAPED_CHARACTERS[random.nextInt(ESCAPED_CHARACTERS.length)]);
+                }
+                return literal.toString();
+        }
+    }
+
+    private static String randomReplacement(Random random) {
+        switch (random.nextInt(10)) {
+            case 0:
+                // these need the regex
+                return "$0";
+            case 1:
+                return "\\$";
+            default:
+                return randomText(random, REPLACEMENT_CHARACTERS, 3);
+        }
+    }
+
+    private static String randomText(Random random, String[] characters, int maxLength) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0, length = random.nextInt(maxLength + 1); i < length; i++) {
+            text.append(characters[random.nextInt(characters.length)]);
+        }
+        return text.toString();
+    }
+
+    private static String describe(List<String[]> rules) {
+        StringBuilder description = new StringBuilder();
+        for (String[] rule : rules) {
+            description.append(escape(rule[0])).append(" -> ").append(escape(rule[1])).append(", ");
+        }
+        return description.toString();
+    }
+
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder("\"");
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x20 || c > 0x7e) {
+                escaped.append(String.format("\\u%04x", (int) c));
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.append('"').toString();
+    }
+
+}
@@ -0,0 +1,80 @@
+package me.angrybyte.goose.texthelpers;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Splitting on plain text without the regex, and counting or walking the pieces without creating them, must agree with
+ * {@link Pattern#split(CharSequence)}
+ */
+public class StringSplitterTest {
+
+    // the separators the extractor uses, and regexes that still go through the Pattern
+    private static final String[] SEPARATORS = {" ", "\\|", " - ", ":", "\u00bb", "ab", "\\.", "--", "aa", "\\s+", "[,;]", "a*", ",?",
+            "\\b", "(?=a)"};
+    private static final String[] CHARACTERS = {"a", "b", " ", "|", "-", ":", "\u00bb", ".", ",", ";", "c", "\ud83d\ude00"};
+
+    private static final int CASES = 100000;
+
+    @Test
+    public void piecesAreTheOnesOfPatternSplit() {
+        Random random = new Random(17);
+        for (int i = 0; i < CASES; i++) {
+            String separator = SEPARATORS[random.nextInt(SEPARATORS.length)];
+            String input = randomText(random, 1 + random.nextInt(12));
+            String[] expected = Pattern.compile(separator).split(input);
+            String message = "Splitting \"" + input + "\" on \"" + separator + "\"";
+
+            StringSplitter splitter = new StringSplitter(separator);
+            assertArrayEquals(message, expected, splitter.split(input));
+            assertEquals(message, expected.length, splitter.count(input));
+            assertEquals(message, expected.length, splitter.count(new StringBuilder(input)));
+
+            // the pieces are the same, followed by the empty pieces that split drops at the end
+            StringSplitter.Pieces pieces = splitter.pieces(new StringBuilder(input));
+            int count = 0;
+            while (pieces.next()) {
+                String piece = pieces.get().toString();
+                assertEquals(message, piece, input.substring(pieces.start(), pieces.end()));
+                assertEquals(message + ", piece " + count, count < expected.length ? expected[count] : "", piece);
+                count++;
+            }
+            assertTrue(message, count >= expected.length);
+            assertFalse(message, pieces.next());
+        }
+    }
+
+    @Test
+    public void emptyInputsAreASingleEmptyPiece() {
+        StringSplitter splitter = new StringSplitter("\\|");
+        assertArrayEquals(new String[] {""}, splitter.split(""));
+        assertArrayEquals(new String[] {""}, splitter.split(null));
+        assertEquals(1, splitter.count(""));
+        assertEquals(1, splitter.count(null));
+    }
+
+    @Test
+    public void titlesSplitOnTheirSeparators() {
+        assertEquals(Arrays.asList("The title ", " The site"), Arrays.asList(new StringSplitter("\\|").split("The title | The site")));
+        assertEquals(Arrays.asList("The title", "The site"), Arrays.asList(new StringSplitter(" - ").split("The title - The site")));
+        assertEquals(0, new StringSplitter("\\|").split("|").length);
+        assertEquals(0, new StringSplitter("\\|").count("||"));
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.append(CHARACTERS[random.nextInt(CHARACTERS.length)]);
+        }
+        return text.toString();
+    }
+
+}
@@ -0,0 +1,189 @@
+package me.angrybyte.goose.tools;
+
+import me.angrybyte.goose.Article;
+
+import org.jsoup.nodes.Element;
+
+import java.text.SimpleDateFormat;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Writes an {@link Article} as a single line of JSON. Missing values are {@code null}, the raw html and the top node are left out.
+ */
+final class ArticleJson {
+
+    // SimpleDateFormat is not thread-safe, so every writing thread gets its own
+    private static final ThreadLocal<SimpleDateFormat> DATE_FORMAT = new ThreadLocal<SimpleDateFormat>() {
+        @Override
+        protected SimpleDateFormat initialValue() {
+            SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'", Locale.US);
+            format.setTimeZone(TimeZone.getTimeZone("UTC"));
+            return format;
+        }
+    };
+
+    private final StringBuilder json = new StringBuilder(256);
+    private boolean firstField = true;
+
+    private ArticleJson() {
+    }
+
+    /**
+     * @param source  What the article was extracted from, the url or the file as it was given
+     * @param url     The url that was extracted
+     * @param article The extracted article, {@code null} if it couldn't be loaded
+     */
+    static String toJson(String source, String url, Article article) {
+        ArticleJson writer = new ArticleJson();
+        writer.json.append('{');
+        writer.field("source").string(source);
+        writer.field("url").string(url);
+        if (article == null) {
+            writer.field("error").string("The page couldn't be loaded");
+            return writer.json.append('}').toString();
+        }
+
+        writer.field("title").string(article.getTitle());
+        writer.field("metaDescription").string(article.getMetaDescription());
+        writer.field("metaKeywords").string(article.getMetaKeywords());
+        writer.field("canonicalLink").string(article.getCanonicalLink());
+        writer.field("domain").string(article.getDomain());
+        writer.field("publishDate").string(article.getPublishDate() == null ? null : formatDate(article.getPublishDate()));
+        writer.field("tags").strings(article.getTags());
+        writer.field("topImage").string(article.getTopImage() == null ? null : article.getTopImage().getImageSrc());
+        writer.field("movies").movies(article.getMovies());
+        writer.field("cleanedArticleText").string(article.getCleanedArticleText());
+        writer.field("additionalData").map(article.getAdditionalData());
+        writer.field("skippedStages").strings(article.getSkippedStages());
+        return writer.json.append('}').toString();
+    }
+
+    /**
+     * @param source What couldn't be extracted
+     * @param url    The url that was extracted, can be {@code null}
+     * @param error  Why it couldn't
+     */
+    static String toJson(String source, String url, Throwable error) {
+        ArticleJson writer = new ArticleJson();
+        writer.json.append('{');
+        writer.field("source").string(source);
+        writer.field("url").string(url);
+        writer.field("error").string(error.getMessage() == null ? error.toString() : error.getMessage());
+        return writer.json.append('}').toString();
+    }
+
+    private static String formatDate(Date date) {
+        return DATE_FORMAT.get().format(date);
+    }
+
+    private ArticleJson field(String name) {
+        if (!firstField) {
+            json.append(',');
+        }
+        firstField = false;
+        string(name);
+        json.append(':');
+        return this;
+    }
+
+    private void strings(Collection<String> values) {
+        if (values == null) {
+            json.append("null");
+            return;
+        }
+
+        json.append('[');
+        boolean first = true;
+        for (String value : values) {
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            string(value);
+        }
+        json.append(']');
+    }
+
+    /**
+     * Movies are embed elements, only their source is written
+     */
+    private void movies(Collection<Element> movies) {
+        if (movies == null) {
+            json.append("null");
+            return;
+        }
+
+        json.append('[');
+        boolean first = true;
+        for (Element movie : movies) {
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            string(movie.attr("src"));
+        }
+        json.append(']');
+    }
+
+    private void map(Map<String, String> values) {
+        if (values == null) {
+            json.append("null");
+            return;
+        }
+
+        json.append('{');
+        boolean first = true;
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            string(entry.getKey());
+            json.append(':');
+            string(entry.getValue());
+        }
+        json.append('}');
+    }
+
+    private void string(String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    // the other control chars, and the line separators JavaScript doesn't allow in strings
+                    if (c < 0x20 || c == '\u2028' || c == '\u2029') {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+
+}
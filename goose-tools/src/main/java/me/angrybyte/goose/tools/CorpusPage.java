@@ -0,0 +1,94 @@
+package me.angrybyte.goose.tools;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A saved html page in a corpus directory. The url it came from is the first line of a {@code .url} file next to it ({@code page.html.url}
+ * for {@code page.html}) when there's one, otherwise it's made up from the path of the page in the corpus, so the extraction always sees
+ * the same url.
+ */
+final class CorpusPage {
+
+    private static final String URL_SUFFIX = ".url";
+    private static final String MADE_UP_URL_PREFIX = "http://localhost/";
+
+    private final File file;
+    private final String path;
+
+    private CorpusPage(File file, String path) {
+        this.file = file;
+        this.path = path;
+    }
+
+    /**
+     * @return All {@code .html} and {@code .htm} files under the directory, in a stable order
+     */
+    static List<CorpusPage> list(File directory) throws IOException {
+        if (!directory.isDirectory()) {
+            throw new IOException("Not a directory: " + directory);
+        }
+
+        List<CorpusPage> pages = new ArrayList<>();
+        collect(directory, "", pages);
+        return pages;
+    }
+
+    /**
+     * @return A page that's not part of a corpus, its made up url only has its name
+     */
+    static CorpusPage of(File file) {
+        return new CorpusPage(file, file.getName());
+    }
+
+    private static void collect(File directory, String path, List<CorpusPage> pages) throws IOException {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            throw new IOException("Can't list " + directory);
+        }
+
+        Arrays.sort(files);
+        for (File file : files) {
+            String filePath = path + file.getName();
+            if (file.isDirectory()) {
+                collect(file, filePath + '/', pages);
+            } else if (isHtml(file.getName())) {
+                pages.add(new CorpusPage(file, filePath));
+            }
+        }
+    }
+
+    private static boolean isHtml(String name) {
+        String lowerCase = name.toLowerCase();
+        return lowerCase.endsWith(".html") || lowerCase.endsWith(".htm");
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    /**
+     * @return Path of the page relative to the corpus directory, always with '/' separators
+     */
+    String getPath() {
+        return path;
+    }
+
+    String readUrl() throws IOException {
+        File urlFile = new File(file.getPath() + URL_SUFFIX);
+        if (urlFile.isFile()) {
+            String url = TextFiles.read(urlFile).trim();
+            int lineEnd = url.indexOf('\n');
+            return lineEnd == -1 ? url : url.substring(0, lineEnd).trim();
+        }
+        return MADE_UP_URL_PREFIX + path;
+    }
+
+    String readHtml() throws IOException {
+        return TextFiles.read(file);
+    }
+
+}
@@ -0,0 +1,339 @@
+package me.angrybyte.goose.tools;
+
+import me.angrybyte.goose.Article;
+import me.angrybyte.goose.Configuration;
+import me.angrybyte.goose.ContentExtractor;
+import me.angrybyte.goose.ExtractionListener;
+import me.angrybyte.goose.ExtractionMetrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Extracts every html page of a corpus directory, offline and one page at a time, and reports how fast that was: articles per second,
+ * p50 and p99 of every stage and the peak heap. Then the title, top image and cleaned text of every page are compared with the golden
+ * outputs stored for it, so a change that's supposed to only make things faster can show it didn't change the results.
+ * <p/>
+ * Run it with no arguments to see the options. The exit code is 0 when everything matched, 1 when something didn't (or failed), 2 for bad
+ * arguments.
+ */
+public final class CorpusRunner {
+
+    private static final String USAGE = "Usage: CorpusRunner <corpus directory> [options]\n"
+            + "  --golden <directory>  compare with the golden outputs in this directory\n"
+            + "  --update-golden       write the golden outputs instead of comparing with them\n"
+            + "  --web-view            extract for a web view, keeping some of the html\n"
+            + "  --images              look for top images, which downloads them, everything else stays offline\n"
+            + "  --warmup <passes>     passes over the corpus before measuring, 1 by default\n"
+            + "  --passes <passes>     measured passes over the corpus, 1 by default\n";
+
+    private static final String GOLDEN_SUFFIX = ".golden.txt";
+
+    private final File corpus;
+    private File goldenDirectory;
+    private boolean updateGolden;
+    private boolean forWebView;
+    private boolean fetchImages;
+    private int warmupPasses = 1;
+    private int passes = 1;
+
+    private final PrintStream out;
+
+    private CorpusRunner(File corpus, PrintStream out) {
+        this.corpus = corpus;
+        this.out = out;
+    }
+
+    public static void main(String[] args) {
+        CorpusRunner runner;
+        try {
+            runner = parseArguments(args, System.out);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        try {
+            System.exit(runner.run() ? 0 : 1);
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static CorpusRunner parseArguments(String[] args, PrintStream out) throws IllegalArgumentException {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("The corpus directory is missing!");
+        }
+
+        CorpusRunner runner = new CorpusRunner(new File(args[0]), out);
+        for (int i = 1; i < args.length; i++) {
+            String option = args[i];
+            switch (option) {
+                case "--golden":
+                    runner.goldenDirectory = new File(value(args, ++i, option));
+                    break;
+                case "--update-golden":
+                    runner.updateGolden = true;
+                    break;
+                case "--web-view":
+                    runner.forWebView = true;
+                    break;
+                case "--images":
+                    runner.fetchImages = true;
+                    break;
+                case "--warmup":
+                    runner.warmupPasses = count(value(args, ++i, option), option, 0);
+                    break;
+                case "--passes":
+                    runner.passes = count(value(args, ++i, option), option, 1);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + option);
+            }
+        }
+
+        if (runner.updateGolden && runner.goldenDirectory == null) {
+            throw new IllegalArgumentException("--update-golden needs --golden!");
+        }
+        return runner;
+    }
+
+    private static String value(String[] args, int index, String option) throws IllegalArgumentException {
+        if (index >= args.length) {
+            throw new IllegalArgumentException(option + " needs a value!");
+        }
+        return args[index];
+    }
+
+    private static int count(String value, String option, int min) throws IllegalArgumentException {
+        try {
+            int count = Integer.parseInt(value);
+            if (count >= min) {
+                return count;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException(option + " must be a number, at least " + min + "!");
+    }
+
+    /**
+     * @return true if nothing failed and every page matched its golden output
+     */
+    private boolean run() throws IOException {
+        List<CorpusPage> pages = CorpusPage.list(corpus);
+        if (pages.isEmpty()) {
+            throw new IOException("No html files in " + corpus);
+        }
+
+        StageTimes stageTimes = new StageTimes();
+        Configuration config = new Configuration(TextFiles.createTempDirectory("goose-corpus").getAbsolutePath());
+        config.setEnableImageFetching(fetchImages);
+        config.setExtractionListener(stageTimes);
+        ContentExtractor extractor = new ContentExtractor(config);
+
+        for (int pass = 0; pass < warmupPasses; pass++) {
+            runPass(extractor, pages, null);
+        }
+
+        stageTimes.clear();
+        resetPeakHeap();
+        List<Article> articles = new ArrayList<>(pages.size());
+        long elapsedNanos = 0;
+        for (int pass = 0; pass < passes; pass++) {
+            elapsedNanos += runPass(extractor, pages, pass == 0 ? articles : null);
+        }
+        long peakHeap = getPeakHeap();
+
+        int extractions = pages.size() * passes;
+        out.printf(Locale.US, "%d pages, %d warmup and %d measured passes, %d extractions failed%n", pages.size(), warmupPasses, passes,
+                stageTimes.getFailureCount());
+        out.printf(Locale.US, "Throughput: %.1f articles/s%n", extractions / (elapsedNanos / 1e9));
+        stageTimes.print(out);
+        out.printf(Locale.US, "Peak heap: %.1f MB%n", peakHeap / (1024.0 * 1024.0));
+
+        boolean matched = stageTimes.getFailureCount() == 0;
+        if (goldenDirectory != null) {
+            matched &= checkGolden(pages, articles);
+        }
+        return matched;
+    }
+
+    /**
+     * Extracts every page once. Reading the files isn't measured.
+     *
+     * @param articles Gets the extracted articles, can be {@code null}
+     * @return Nanoseconds spent extracting
+     */
+    private long runPass(ContentExtractor extractor, List<CorpusPage> pages, List<Article> articles) throws IOException {
+        long elapsedNanos = 0;
+        for (CorpusPage page : pages) {
+            String url = page.readUrl();
+            String html = page.readHtml();
+
+            long start = System.nanoTime();
+            Article article;
+            try {
+                article = extractor.extractContent(url, html, forWebView);
+            } catch (IllegalArgumentException e) {
+                // only a bad url gets here, every other failure ends up in the metrics
+                throw new IOException(page.getPath() + ": " + e.getMessage(), e);
+            }
+            elapsedNanos += System.nanoTime() - start;
+
+            if (articles != null) {
+                articles.add(article);
+            }
+        }
+        return elapsedNanos;
+    }
+
+    private boolean checkGolden(List<CorpusPage> pages, List<Article> articles) throws IOException {
+        int same = 0;
+        int different = 0;
+        int missing = 0;
+        for (int i = 0; i < pages.size(); i++) {
+            CorpusPage page = pages.get(i);
+            GoldenOutput actual = GoldenOutput.of(articles.get(i));
+            File goldenFile = new File(goldenDirectory, page.getPath() + GOLDEN_SUFFIX);
+            if (updateGolden) {
+                actual.write(goldenFile);
+                continue;
+            }
+
+            GoldenOutput expected = GoldenOutput.read(goldenFile);
+            if (expected == null) {
+                out.println("MISSING " + page.getPath());
+                missing++;
+                continue;
+            }
+
+            List<String> differences = actual.diff(expected);
+            if (differences.isEmpty()) {
+                same++;
+                continue;
+            }
+
+            out.println("DIFFERENT " + page.getPath());
+            for (String difference : differences) {
+                out.println("  " + difference);
+            }
+            different++;
+        }
+
+        if (updateGolden) {
+            out.println("Golden outputs of " + pages.size() + " pages written to " + goldenDirectory);
+            return true;
+        }
+        out.println("Golden outputs: " + same + " same, " + different + " different, " + missing + " missing");
+        return different == 0 && missing == 0;
+    }
+
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    /**
+     * @return The peaks of all heap pools added up. They don't all peak at the same time, so it's a little more than the real peak
+     */
+    private static long getPeakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    /**
+     * Collects the wall time of every stage of every extraction, and of the whole extractions
+     */
+    private static final class StageTimes implements ExtractionListener {
+
+        private static final String TOTAL = "total";
+
+        private final Map<String, long[]> times = new LinkedHashMap<>();
+        private final Map<String, Integer> counts = new LinkedHashMap<>();
+        private int failureCount;
+
+        @Override
+        public synchronized void onExtractionFinished(ExtractionMetrics metrics) {
+            for (ExtractionMetrics.StageMetrics stage : metrics.getStages()) {
+                add(stage.getName(), stage.getElapsedNanos());
+            }
+            add(TOTAL, metrics.getTotalNanos());
+            if (metrics.getFailedStage() != null) {
+                failureCount++;
+            }
+        }
+
+        private void add(String stage, long nanos) {
+            long[] stageTimes = times.get(stage);
+            Integer count = counts.get(stage);
+            int size = count == null ? 0 : count;
+            if (stageTimes == null) {
+                stageTimes = new long[64];
+            } else if (size == stageTimes.length) {
+                stageTimes = Arrays.copyOf(stageTimes, size * 2);
+            }
+            stageTimes[size] = nanos;
+            times.put(stage, stageTimes);
+            counts.put(stage, size + 1);
+        }
+
+        synchronized void clear() {
+            times.clear();
+            counts.clear();
+            failureCount = 0;
+        }
+
+        synchronized int getFailureCount() {
+            return failureCount;
+        }
+
+        synchronized void print(PrintStream out) {
+            // the total goes last, stages stay in the order they first ran
+            long[] totalTimes = times.remove(TOTAL);
+            Integer totalCount = counts.remove(TOTAL);
+            if (totalTimes != null) {
+                times.put(TOTAL, totalTimes);
+                counts.put(TOTAL, totalCount);
+            }
+
+            out.printf(Locale.US, "%-16s %8s %10s %10s%n", "stage", "runs", "p50 ms", "p99 ms");
+            for (Map.Entry<String, long[]> entry : times.entrySet()) {
+                int count = counts.get(entry.getKey());
+                long[] sorted = Arrays.copyOf(entry.getValue(), count);
+                Arrays.sort(sorted);
+                out.printf(Locale.US, "%-16s %8d %10.3f %10.3f%n", entry.getKey(), count, percentile(sorted, 0.5) / 1e6,
+                        percentile(sorted, 0.99) / 1e6);
+            }
+        }
+
+        /**
+         * Nearest rank percentile of sorted values
+         */
+        private static long percentile(long[] sorted, double percentile) {
+            int rank = (int) Math.ceil(percentile * sorted.length);
+            return sorted[Math.max(0, rank - 1)];
+        }
+    }
+
+}
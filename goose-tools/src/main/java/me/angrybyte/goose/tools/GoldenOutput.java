@@ -0,0 +1,116 @@
+package me.angrybyte.goose.tools;
+
+import me.angrybyte.goose.Article;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The parts of an {@link Article} that must not change when the extraction gets faster: title, top image and cleaned text. Stored as a
+ * small text file per page:
+ *
+ * <pre>
+ * title: The title
+ * top image: http://example.com/image.jpg
+ *
+ * The cleaned text, as many lines as it takes
+ * </pre>
+ *
+ * Missing values are stored as empty.
+ */
+final class GoldenOutput {
+
+    private static final String TITLE = "title: ";
+    private static final String TOP_IMAGE = "top image: ";
+
+    private final String title;
+    private final String topImage;
+    private final String text;
+
+    private GoldenOutput(String title, String topImage, String text) {
+        this.title = title;
+        this.topImage = topImage;
+        this.text = text;
+    }
+
+    static GoldenOutput of(Article article) {
+        String topImage = article.getTopImage() == null ? null : article.getTopImage().getImageSrc();
+        return new GoldenOutput(oneLine(article.getTitle()), oneLine(topImage), nonNull(article.getCleanedArticleText()));
+    }
+
+    /**
+     * @return What's stored in the file, or {@code null} if there's no such file
+     */
+    static GoldenOutput read(File file) throws IOException {
+        if (!file.isFile()) {
+            return null;
+        }
+
+        String content = TextFiles.read(file);
+        int titleEnd = content.indexOf('\n');
+        int topImageEnd = titleEnd == -1 ? -1 : content.indexOf('\n', titleEnd + 1);
+        if (!content.startsWith(TITLE) || topImageEnd == -1 || !content.startsWith(TOP_IMAGE, titleEnd + 1)) {
+            throw new IOException("Not a golden output file: " + file);
+        }
+
+        String title = content.substring(TITLE.length(), titleEnd);
+        String topImage = content.substring(titleEnd + 1 + TOP_IMAGE.length(), topImageEnd);
+        // a blank line separates the header from the text
+        int textStart = Math.min(content.length(), topImageEnd + 2);
+        return new GoldenOutput(title, topImage, content.substring(textStart));
+    }
+
+    void write(File file) throws IOException {
+        TextFiles.write(file, TITLE + title + '\n' + TOP_IMAGE + topImage + "\n\n" + text);
+    }
+
+    /**
+     * @param expected The stored output
+     * @return One line per field that's different, empty if they're the same
+     */
+    List<String> diff(GoldenOutput expected) {
+        List<String> differences = new ArrayList<>();
+        if (!title.equals(expected.title)) {
+            differences.add("title: expected \"" + expected.title + "\", got \"" + title + "\"");
+        }
+        if (!topImage.equals(expected.topImage)) {
+            differences.add("top image: expected \"" + expected.topImage + "\", got \"" + topImage + "\"");
+        }
+        if (!text.equals(expected.text)) {
+            differences.add("text: " + describeTextDifference(expected.text, text));
+        }
+        return differences;
+    }
+
+    /**
+     * Points at the first line of the text that's different
+     */
+    private static String describeTextDifference(String expected, String actual) {
+        String[] expectedLines = expected.split("\n", -1);
+        String[] actualLines = actual.split("\n", -1);
+        int line = 0;
+        while (line < expectedLines.length && line < actualLines.length && expectedLines[line].equals(actualLines[line])) {
+            line++;
+        }
+
+        String expectedLine = line < expectedLines.length ? "\"" + shorten(expectedLines[line]) + "\"" : "end of text";
+        String actualLine = line < actualLines.length ? "\"" + shorten(actualLines[line]) + "\"" : "end of text";
+        return "line " + (line + 1) + " (of " + expectedLines.length + " expected, " + actualLines.length + " got): expected "
+                + expectedLine + ", got " + actualLine;
+    }
+
+    private static String shorten(String line) {
+        return line.length() <= 120 ? line : line.substring(0, 117) + "...";
+    }
+
+    private static String oneLine(String value) {
+        return nonNull(value).replace('\r', ' ').replace('\n', ' ');
+    }
+
+    private static String nonNull(String value) {
+        return value == null ? "" : value;
+    }
+
+}
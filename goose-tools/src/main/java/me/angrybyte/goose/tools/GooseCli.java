@@ -0,0 +1,378 @@
+package me.angrybyte.goose.tools;
+
+import me.angrybyte.goose.Article;
+import me.angrybyte.goose.Configuration;
+import me.angrybyte.goose.ContentExtractor;
+import me.angrybyte.goose.ExtractionCallback;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Extracts a batch of pages and writes every {@link Article} as a line of JSON to the standard output, as soon as it's done, so the
+ * output is in the order the extractions finished. The pages are given as arguments, or on the standard input one per line when there
+ * are none: urls to download, html files, directories of html files and WARC files, which are streamed through a {@link WarcReader}.
+ * Extractions run on a pool of workers through {@link ContentExtractor#extractContentAsync(String, String, boolean, ExtractionCallback)},
+ * and only a few of them are read ahead, however large the input is.
+ * <p/>
+ * Run it with {@code --help} to see the options. The exit code is 0 when everything was extracted, 1 when something couldn't be, 2 for
+ * bad arguments.
+ */
+public final class GooseCli {
+
+    private static final String USAGE = "Usage: goose [options] [input...]\n"
+            + "Extracts the inputs, or the inputs listed on the standard input when there are none, and writes one line of JSON per\n"
+            + "article to the standard output. An input is a url, an html file, a directory of html files or a WARC file.\n"
+            + "  --threads <count>     extractions running at the same time, the number of processors by default\n"
+            + "  --web-view            extract for a web view, keeping some of the html\n"
+            + "  --images              look for top images, which downloads them\n"
+            + "  --timeout <millis>    time budget of every extraction, none by default\n";
+
+    // urls are told apart from files by their scheme
+    private static final String HTTP = "http://";
+    private static final String HTTPS = "https://";
+
+    // how often the extractions in flight are checked for failures while waiting on them
+    private static final long FAILURE_CHECK_MILLIS = 100;
+
+    private final List<String> inputs = new ArrayList<>();
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private boolean forWebView;
+    private boolean fetchImages;
+    private long timeout;
+
+    private final PrintStream out;
+    private final AtomicInteger failures = new AtomicInteger();
+    private Semaphore inFlight;
+    private final Set<Extraction> extractions = Collections.newSetFromMap(new ConcurrentHashMap<Extraction, Boolean>());
+
+    private GooseCli(PrintStream out) {
+        this.out = out;
+    }
+
+    public static void main(String[] args) throws IOException {
+        GooseCli cli;
+        try {
+            cli = parseArguments(args, new PrintStream(new FileOutputStream(FileDescriptor.out), false, "UTF-8"));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        if (cli == null) {
+            System.out.print(USAGE);
+            return;
+        }
+
+        try {
+            System.exit(cli.run() ? 0 : 1);
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @return The command line, or {@code null} if the usage was asked for
+     */
+    private static GooseCli parseArguments(String[] args, PrintStream out) throws IllegalArgumentException {
+        GooseCli cli = new GooseCli(out);
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            switch (option) {
+                case "-h":
+                case "--help":
+                    return null;
+                case "--threads":
+                    cli.threads = (int) number(value(args, ++i, option), option, 1);
+                    break;
+                case "--web-view":
+                    cli.forWebView = true;
+                    break;
+                case "--images":
+                    cli.fetchImages = true;
+                    break;
+                case "--timeout":
+                    cli.timeout = number(value(args, ++i, option), option, 0);
+                    break;
+                default:
+                    if (option.startsWith("-")) {
+                        throw new IllegalArgumentException("Unknown option " + option);
+                    }
+                    cli.inputs.add(option);
+            }
+        }
+        return cli;
+    }
+
+    private static String value(String[] args, int index, String option) throws IllegalArgumentException {
+        if (index >= args.length) {
+            throw new IllegalArgumentException(option + " needs a value!");
+        }
+        return args[index];
+    }
+
+    private static long number(String value, String option, long min) throws IllegalArgumentException {
+        try {
+            long number = Long.parseLong(value);
+            if (number >= min && number <= Integer.MAX_VALUE) {
+                return number;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException(option + " must be a number, at least " + min + "!");
+    }
+
+    /**
+     * @return true if every page was extracted
+     */
+    private boolean run() throws IOException {
+        // downloads wait on the network, so there are a few more of them in flight than there are workers
+        ExecutorService cpuExecutor = Executors.newFixedThreadPool(threads);
+        ExecutorService networkExecutor = Executors.newFixedThreadPool(threads * 4);
+        int maxInFlight = threads * 4;
+        inFlight = new Semaphore(maxInFlight);
+
+        Configuration config = new Configuration(TextFiles.createTempDirectory("goose-cli").getAbsolutePath());
+        config.setEnableImageFetching(fetchImages);
+        config.setExtractionTimeout(timeout);
+        config.setCpuExecutor(cpuExecutor);
+        config.setNetworkExecutor(networkExecutor);
+        ContentExtractor extractor = new ContentExtractor(config);
+
+        try {
+            if (!inputs.isEmpty()) {
+                for (String input : inputs) {
+                    extractInput(extractor, input);
+                }
+            } else {
+                BufferedReader in = new BufferedReader(new InputStreamReader(System.in, "UTF-8"));
+                String line;
+                while ((line = in.readLine()) != null) {
+                    extractInput(extractor, line.trim());
+                }
+            }
+
+            // wait for the extractions that are still running
+            acquire(maxInFlight);
+        } finally {
+            cpuExecutor.shutdown();
+            networkExecutor.shutdown();
+        }
+
+        out.flush();
+        if (out.checkError()) {
+            throw new IOException("Couldn't write the output");
+        }
+        return failures.get() == 0;
+    }
+
+    private void extractInput(ContentExtractor extractor, String input) throws IOException {
+        if (input.isEmpty() || input.startsWith("#")) {
+            return;
+        }
+
+        if (input.startsWith(HTTP) || input.startsWith(HTTPS)) {
+            extract(extractor, input, input, null);
+            return;
+        }
+
+        File file = new File(input);
+        if (file.isDirectory()) {
+            extractDirectory(extractor, file);
+        } else if (file.isFile() && WarcReader.isWarcFile(file.getName())) {
+            extractWarc(extractor, file);
+        } else if (file.isFile()) {
+            extractPage(extractor, CorpusPage.of(file));
+        } else {
+            fail(input, null, new IOException("No such file: " + input));
+        }
+    }
+
+    private void extractDirectory(ContentExtractor extractor, File directory) throws IOException {
+        List<CorpusPage> pages = CorpusPage.list(directory);
+        for (CorpusPage page : pages) {
+            extractPage(extractor, page);
+        }
+    }
+
+    /**
+     * Streams the pages out of the archive, the next one is only read once there's room for its extraction
+     */
+    private void extractWarc(ContentExtractor extractor, File file) {
+        WarcReader reader = null;
+        int pageCount = 0;
+        try {
+            reader = WarcReader.open(file);
+            WarcPage page;
+            while ((page = reader.next()) != null) {
+                pageCount++;
+                String recordId = page.getRecordId() == null ? String.valueOf(pageCount) : page.getRecordId();
+                extract(extractor, file.getPath() + '#' + recordId, page.getUrl(), page.getHtml());
+            }
+        } catch (IOException e) {
+            fail(file.getPath(), null, new IOException("Stopped reading after " + pageCount + " pages: " + e.getMessage(), e));
+        } finally {
+            try {
+                if (reader != null) {
+                    reader.close();
+                }
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private void extractPage(ContentExtractor extractor, CorpusPage page) {
+        String source = page.getFile().getPath();
+        String url;
+        String html;
+        try {
+            url = page.readUrl();
+            html = page.readHtml();
+        } catch (IOException e) {
+            fail(source, null, e);
+            return;
+        }
+        extract(extractor, source, url, html);
+    }
+
+    /**
+     * Starts the extraction once there's room for it, the article is written when it's done
+     */
+    private void extract(ContentExtractor extractor, String source, String url, String html) {
+        acquire(1);
+        Extraction extraction = new Extraction(source, url);
+        extractions.add(extraction);
+        try {
+            extraction.future = extractor.extractContentAsync(url, html, forWebView, extraction);
+        } catch (IllegalArgumentException e) {
+            // a bad url
+            extraction.settle(null, e);
+        }
+    }
+
+    /**
+     * Waits until there's room for the given number of extractions. Failed extractions don't call back, so their room is only given back
+     * here, once their futures are done.
+     */
+    private void acquire(int permits) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    if (inFlight.tryAcquire(permits, FAILURE_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+                        return;
+                    }
+                    for (Extraction extraction : extractions) {
+                        extraction.settleIfFailed();
+                    }
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void fail(String source, String url, Throwable error) {
+        failures.incrementAndGet();
+        write(ArticleJson.toJson(source, url, error));
+    }
+
+    private void write(String json) {
+        synchronized (out) {
+            out.println(json);
+            out.flush();
+        }
+    }
+
+    /**
+     * An extraction in flight, it holds room for itself until it's settled. That's once, when the callback gets the article, or when the
+     * future fails without calling back (rejected, cancelled or died with an {@link Error}).
+     */
+    private final class Extraction implements ExtractionCallback {
+
+        private final String source;
+        private final String url;
+        private final AtomicBoolean settled = new AtomicBoolean();
+        private volatile Future<Article> future;
+
+        Extraction(String source, String url) {
+            this.source = source;
+            this.url = url;
+        }
+
+        @Override
+        public void onArticleExtracted(String url, Article article) {
+            settle(article, null);
+        }
+
+        void settleIfFailed() throws InterruptedException {
+            Future<Article> future = this.future;
+            if (future == null || !future.isDone()) {
+                return;
+            }
+
+            try {
+                // done with an article, the callback is on its way
+                future.get();
+            } catch (CancellationException e) {
+                settle(null, e);
+            } catch (ExecutionException e) {
+                settle(null, e.getCause());
+            }
+        }
+
+        /**
+         * Writes the article or the error, and gives the room back even if that fails
+         */
+        void settle(Article article, Throwable error) {
+            if (!settled.compareAndSet(false, true)) {
+                return;
+            }
+
+            try {
+                if (error != null) {
+                    fail(source, url, error);
+                    return;
+                }
+                if (article == null) {
+                    failures.incrementAndGet();
+                }
+                write(ArticleJson.toJson(source, url, article));
+            } catch (RuntimeException e) {
+                failures.incrementAndGet();
+                throw e;
+            } finally {
+                extractions.remove(this);
+                inFlight.release();
+            }
+        }
+
+    }
+
+}
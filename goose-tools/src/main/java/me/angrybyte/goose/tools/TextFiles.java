@@ -0,0 +1,63 @@
+package me.angrybyte.goose.tools;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Reads and writes whole UTF-8 files, everything the tools read or write is UTF-8. Also makes the directories the extractions cache their
+ * images in.
+ */
+final class TextFiles {
+
+    private TextFiles() {
+    }
+
+    static String read(File file) throws IOException {
+        InputStream in = new FileInputStream(file);
+        try {
+            byte[] bytes = new byte[(int) file.length()];
+            int read = 0;
+            int count;
+            while (read < bytes.length && (count = in.read(bytes, read, bytes.length - read)) != -1) {
+                read += count;
+            }
+            return new String(bytes, 0, read, "UTF-8");
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Creates the parent directories if they're missing
+     */
+    static void write(File file, String content) throws IOException {
+        File dir = file.getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Can't create " + dir);
+        }
+
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content.getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * @return A new empty directory in the temp directory, deleted on exit if it's still empty then
+     */
+    static File createTempDirectory(String prefix) throws IOException {
+        File directory = File.createTempFile(prefix, "");
+        if (!directory.delete() || !directory.mkdir()) {
+            throw new IOException("Can't create a temp directory at " + directory);
+        }
+        directory.deleteOnExit();
+        return directory;
+    }
+
+}
@@ -0,0 +1,51 @@
+package me.angrybyte.goose.tools;
+
+/**
+ * An html page read out of a WARC file by {@link WarcReader}, ready for {@link me.angrybyte.goose.ContentExtractor#extractContent(String,
+ * String, boolean)}
+ */
+public final class WarcPage {
+
+    private final String recordId;
+    private final String url;
+    private final String date;
+    private final String html;
+
+    WarcPage(String recordId, String url, String date, String html) {
+        this.recordId = recordId;
+        this.url = url;
+        this.date = date;
+        this.html = html;
+    }
+
+    /**
+     * @return The WARC-Record-ID of the record, like {@code <urn:uuid:...>}, or {@code null} if it has none
+     */
+    public String getRecordId() {
+        return recordId;
+    }
+
+    /**
+     * @return The WARC-Target-URI of the record, the url the page was crawled from
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * @return The WARC-Date of the record, when the page was crawled, like {@code 2017-06-12T09:00:00Z}, or {@code null} if it has none
+     */
+    public String getDate() {
+        return date;
+    }
+
+    public String getHtml() {
+        return html;
+    }
+
+    @Override
+    public String toString() {
+        return url + " (" + recordId + ", " + html.length() + " chars)";
+    }
+
+}
@@ -0,0 +1,456 @@
+package me.angrybyte.goose.tools;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Streams the html pages out of a WARC file, plain or gzipped (one gzip member per record, or the whole file as one). Only one record is
+ * in memory at a time, so archives of any size can be read:
+ *
+ * <pre>
+ * WarcReader reader = WarcReader.open(file);
+ * try {
+ *     WarcPage page;
+ *     while ((page = reader.next()) != null) {
+ *         Article article = extractor.extractContent(page.getUrl(), page.getHtml(), false);
+ *     }
+ * } finally {
+ *     reader.close();
+ * }
+ * </pre>
+ *
+ * Records are picked by their headers alone: {@code response} records with a successful html HTTP response, and {@code resource} records
+ * of html. Everything else (requests, metadata, revisits, images, redirects...) is skipped without its content ever being read into
+ * memory, and so are pages larger than {@link #getMaxPageSize()}. Chunked and gzip or deflate encoded responses are decoded, and skipped
+ * as soon as they grow past that size, and the html is decoded with the charset from the Content-Type header, or from the meta tag of the
+ * page, or as UTF-8.
+ */
+public final class WarcReader implements Closeable {
+
+    /**
+     * Pages larger than this many bytes are skipped by default
+     */
+    public static final int DEFAULT_MAX_PAGE_SIZE = 8 * 1024 * 1024;
+
+    // no header line of a sane archive is longer than this
+    private static final int MAX_LINE_LENGTH = 64 * 1024;
+
+    private static final String WARC_VERSION_PREFIX = "WARC/";
+
+    private static final Pattern CHARSET = Pattern.compile("charset\\s*=\\s*[\"']?([a-zA-Z0-9_.:\\-]+)", Pattern.CASE_INSENSITIVE);
+    private static final int CHARSET_SNIFF_LENGTH = 1024;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final Charset ISO_8859_1 = Charset.forName("ISO-8859-1");
+
+    private final InputStream in;
+    private int maxPageSize = DEFAULT_MAX_PAGE_SIZE;
+
+    // bytes left in the block of the current record
+    private long remaining;
+
+    /**
+     * @param in The WARC, gzipped or not, it's buffered here
+     */
+    public WarcReader(InputStream in) throws IOException {
+        if (in == null) {
+            throw new IllegalArgumentException("in must not be null!");
+        }
+
+        BufferedInputStream buffered = new BufferedInputStream(in);
+        buffered.mark(2);
+        int first = buffered.read();
+        int second = buffered.read();
+        buffered.reset();
+        if (first == 0x1f && second == 0x8b) {
+            // consecutive gzip members are read as one stream
+            this.in = new BufferedInputStream(new GZIPInputStream(buffered, 64 * 1024), 64 * 1024);
+        } else {
+            this.in = buffered;
+        }
+    }
+
+    public static WarcReader open(File file) throws IOException {
+        InputStream in = new FileInputStream(file);
+        try {
+            return new WarcReader(in);
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return true if the file name looks like a WARC file, {@code .warc} or {@code .warc.gz}
+     */
+    public static boolean isWarcFile(String name) {
+        String lowerCase = name.toLowerCase(Locale.ENGLISH);
+        return lowerCase.endsWith(".warc") || lowerCase.endsWith(".warc.gz");
+    }
+
+    public int getMaxPageSize() {
+        return maxPageSize;
+    }
+
+    /**
+     * @param maxPageSize Pages larger than this many bytes, as stored in the archive or once decoded, are skipped
+     */
+    public void setMaxPageSize(int maxPageSize) throws IllegalArgumentException {
+        if (maxPageSize < 1)
+            throw new IllegalArgumentException("maxPageSize must be positive!");
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Reads up to the next html page, skipping all other records
+     *
+     * @return The next page, or {@code null} at the end of the archive
+     * @throws IOException If the archive can't be read or is broken
+     */
+    public WarcPage next() throws IOException {
+        Map<String, String> headers;
+        while ((headers = readRecordHeaders()) != null) {
+            WarcPage page = readPage(headers);
+
+            // whatever's left of the block, then on to the next record
+            skip(remaining);
+            remaining = 0;
+            if (page != null) {
+                return page;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return The headers of the next record with lower case names, or {@code null} at the end of the archive
+     */
+    private Map<String, String> readRecordHeaders() throws IOException {
+        // records are followed by two empty lines
+        remaining = Long.MAX_VALUE;
+        String line;
+        do {
+            line = readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isEmpty());
+
+        if (!line.startsWith(WARC_VERSION_PREFIX)) {
+            throw new IOException("Not a WARC record: " + shorten(line));
+        }
+
+        Map<String, String> headers = readHeaders();
+        String contentLength = headers.get("content-length");
+        if (contentLength == null) {
+            throw new IOException("WARC record without a Content-Length: " + headers.get("warc-record-id"));
+        }
+
+        try {
+            remaining = Long.parseLong(contentLength.trim());
+        } catch (NumberFormatException e) {
+            remaining = -1;
+        }
+        if (remaining < 0) {
+            throw new IOException("Bad Content-Length in WARC record " + headers.get("warc-record-id") + ": " + contentLength);
+        }
+        return headers;
+    }
+
+    /**
+     * @return The page in the block of the record, or {@code null} if the headers say it's not an html page
+     */
+    private WarcPage readPage(Map<String, String> warcHeaders) throws IOException {
+        String type = warcHeaders.get("warc-type");
+        String url = warcHeaders.get("warc-target-uri");
+        if (type == null || url == null) {
+            return null;
+        }
+
+        String contentType;
+        boolean chunked = false;
+        String contentEncoding = null;
+        if (type.equals("response")) {
+            // when the crawler says what the payload is, that's enough to skip it
+            String payloadType = warcHeaders.get("warc-identified-payload-type");
+            if ((payloadType != null && !isHtml(payloadType)) || !isHttp(warcHeaders.get("content-type"))) {
+                return null;
+            }
+
+            String statusLine = readLine();
+            if (statusLine == null || !isSuccessful(statusLine)) {
+                return null;
+            }
+
+            Map<String, String> httpHeaders = readHeaders();
+            contentType = httpHeaders.get("content-type");
+            String transferEncoding = httpHeaders.get("transfer-encoding");
+            chunked = transferEncoding != null && transferEncoding.toLowerCase(Locale.ENGLISH).contains("chunked");
+            contentEncoding = httpHeaders.get("content-encoding");
+        } else if (type.equals("resource")) {
+            contentType = warcHeaders.get("content-type");
+        } else {
+            return null;
+        }
+
+        if (contentType == null || !isHtml(contentType) || remaining > maxPageSize) {
+            return null;
+        }
+
+        byte[] body = readFully((int) remaining);
+        remaining = 0;
+        if (chunked) {
+            body = dechunk(body);
+        }
+        if (contentEncoding != null) {
+            body = decode(body, contentEncoding.trim().toLowerCase(Locale.ENGLISH), maxPageSize);
+            if (body == null) {
+                return null;
+            }
+        }
+
+        // WARC/1.0 examples put the url in angle brackets, some writers followed them
+        url = url.trim();
+        if (url.length() > 1 && url.charAt(0) == '<' && url.charAt(url.length() - 1) == '>') {
+            url = url.substring(1, url.length() - 1);
+        }
+
+        String html = new String(body, charsetOf(contentType, body));
+        return new WarcPage(warcHeaders.get("warc-record-id"), url, warcHeaders.get("warc-date"), html);
+    }
+
+    private static boolean isHtml(String contentType) {
+        String lowerCase = contentType.toLowerCase(Locale.ENGLISH);
+        return lowerCase.contains("text/html") || lowerCase.contains("application/xhtml+xml");
+    }
+
+    private static boolean isHttp(String warcContentType) {
+        return warcContentType != null && warcContentType.toLowerCase(Locale.ENGLISH).startsWith("application/http");
+    }
+
+    /**
+     * @return true for a 2xx status line, like "HTTP/1.1 200 OK"
+     */
+    private static boolean isSuccessful(String statusLine) {
+        int codeStart = statusLine.indexOf(' ');
+        return codeStart != -1 && statusLine.length() > codeStart + 3 && statusLine.charAt(codeStart + 1) == '2'
+                && Character.isDigit(statusLine.charAt(codeStart + 2)) && Character.isDigit(statusLine.charAt(codeStart + 3));
+    }
+
+    /**
+     * Reads header lines up to the empty line that ends them. Names are lower cased, folded lines are joined, and the first of repeated
+     * headers wins.
+     */
+    private Map<String, String> readHeaders() throws IOException {
+        Map<String, String> headers = new HashMap<>();
+        String lastName = null;
+        String line;
+        while ((line = readLine()) != null && !line.isEmpty()) {
+            if ((line.charAt(0) == ' ' || line.charAt(0) == '\t') && lastName != null) {
+                headers.put(lastName, headers.get(lastName) + ' ' + line.trim());
+                continue;
+            }
+
+            int colon = line.indexOf(':');
+            if (colon <= 0) {
+                continue;
+            }
+            String name = line.substring(0, colon).trim().toLowerCase(Locale.ENGLISH);
+            if (!headers.containsKey(name)) {
+                headers.put(name, line.substring(colon + 1).trim());
+                lastName = name;
+            } else {
+                lastName = null;
+            }
+        }
+        return headers;
+    }
+
+    /**
+     * Reads a line of the current block, without its CRLF or LF
+     *
+     * @return The line, or {@code null} if the block or the archive ended first
+     */
+    private String readLine() throws IOException {
+        if (remaining <= 0) {
+            return null;
+        }
+
+        ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+        int b;
+        while (remaining > 0 && (b = in.read()) != -1) {
+            remaining--;
+            if (b == '\n') {
+                return lineToString(line);
+            }
+            if (line.size() == MAX_LINE_LENGTH) {
+                throw new IOException("Header line longer than " + MAX_LINE_LENGTH + " bytes");
+            }
+            line.write(b);
+        }
+        return line.size() == 0 ? null : lineToString(line);
+    }
+
+    private static String lineToString(ByteArrayOutputStream line) {
+        byte[] bytes = line.toByteArray();
+        int length = bytes.length;
+        if (length > 0 && bytes[length - 1] == '\r') {
+            length--;
+        }
+        return new String(bytes, 0, length, UTF_8);
+    }
+
+    private byte[] readFully(int length) throws IOException {
+        byte[] bytes = new byte[length];
+        int read = 0;
+        while (read < length) {
+            int count = in.read(bytes, read, length - read);
+            if (count == -1) {
+                throw new EOFException("WARC record cut short");
+            }
+            read += count;
+        }
+        return bytes;
+    }
+
+    private void skip(long count) throws IOException {
+        while (count > 0) {
+            long skipped = in.skip(count);
+            if (skipped <= 0) {
+                // skip() may give up before the end, read() tells us if it's really the end
+                if (in.read() == -1) {
+                    throw new EOFException("WARC record cut short");
+                }
+                skipped = 1;
+            }
+            count -= skipped;
+        }
+    }
+
+    /**
+     * Removes the chunk sizes of a chunked HTTP body. A broken chunk ends the body.
+     */
+    private static byte[] dechunk(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length);
+        int position = 0;
+        while (position < body.length) {
+            int lineEnd = position;
+            while (lineEnd < body.length && body[lineEnd] != '\n') {
+                lineEnd++;
+            }
+
+            String sizeLine = new String(body, position, lineEnd - position, ISO_8859_1).trim();
+            int extension = sizeLine.indexOf(';');
+            if (extension != -1) {
+                sizeLine = sizeLine.substring(0, extension).trim();
+            }
+
+            int size;
+            try {
+                size = Integer.parseInt(sizeLine, 16);
+            } catch (NumberFormatException e) {
+                break;
+            }
+            position = lineEnd + 1;
+            if (size <= 0) {
+                break;
+            }
+
+            size = Math.min(size, body.length - position);
+            out.write(body, position, size);
+            // the chunk is followed by a CRLF
+            position += size;
+            while (position < body.length && (body[position] == '\r' || body[position] == '\n')) {
+                position++;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @return The body without its Content-Encoding, or {@code null} if it can't be decoded or it's larger than maxSize once decoded
+     */
+    private static byte[] decode(byte[] body, String contentEncoding, int maxSize) {
+        InputStream decoded;
+        try {
+            switch (contentEncoding) {
+                case "identity":
+                case "":
+                    return body;
+                case "gzip":
+                case "x-gzip":
+                    decoded = new GZIPInputStream(new ByteArrayInputStream(body));
+                    break;
+                case "deflate":
+                    decoded = new InflaterInputStream(new ByteArrayInputStream(body));
+                    break;
+                default:
+                    return null;
+            }
+
+            // a small body can inflate to gigabytes, it's only decoded up to the size of the largest page
+            ByteArrayOutputStream out = new ByteArrayOutputStream((int) Math.min((long) body.length * 4, maxSize));
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = decoded.read(buffer)) != -1) {
+                if (read > maxSize - out.size()) {
+                    return null;
+                }
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The charset from the Content-Type, then from the start of the page, then UTF-8
+     */
+    private static Charset charsetOf(String contentType, byte[] body) {
+        Charset charset = findCharset(contentType);
+        if (charset == null) {
+            charset = findCharset(new String(body, 0, Math.min(body.length, CHARSET_SNIFF_LENGTH), ISO_8859_1));
+        }
+        return charset == null ? UTF_8 : charset;
+    }
+
+    private static Charset findCharset(String text) {
+        Matcher matcher = CHARSET.matcher(text);
+        if (!matcher.find()) {
+            return null;
+        }
+
+        try {
+            String name = matcher.group(1);
+            return Charset.isSupported(name) ? Charset.forName(name) : null;
+        } catch (IllegalCharsetNameException e) {
+            return null;
+        }
+    }
+
+    private static String shorten(String line) {
+        return line.length() <= 80 ? line : line.substring(0, 77) + "...";
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+}
@@ -0,0 +1,295 @@
+package me.angrybyte.goose.tools;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+/**
+ * Reads small WARCs that are put together in memory, the records are written the way crawlers write them
+ */
+public class WarcReaderTest {
+
+    private static final String PAGE = "<html><head><title>A page</title></head><body><p>Some text.</p></body></html>";
+
+    @Test
+    public void readsPagesOfPlainArchives() throws IOException {
+        byte[] warc = concat(warcinfo(), response("http://www.example.com/a.html", "text/html", PAGE),
+                resource("http://www.example.com/b.html", PAGE + "<!-- b -->"));
+
+        List<WarcPage> pages = readAll(new WarcReader(new ByteArrayInputStream(warc)));
+        assertEquals(2, pages.size());
+        assertEquals("http://www.example.com/a.html", pages.get(0).getUrl());
+        assertEquals(PAGE, pages.get(0).getHtml());
+        assertEquals("<urn:uuid:http://www.example.com/a.html>", pages.get(0).getRecordId());
+        assertEquals("2017-06-12T09:00:00Z", pages.get(0).getDate());
+        assertEquals("http://www.example.com/b.html", pages.get(1).getUrl());
+        assertEquals(PAGE + "<!-- b -->", pages.get(1).getHtml());
+    }
+
+    @Test
+    public void readsArchivesWithAGzipMemberPerRecord() throws IOException {
+        byte[] warc = concat(gzip(warcinfo()), gzip(response("http://www.example.com/a.html", "text/html", PAGE)),
+                gzip(response("http://www.example.com/b.html", "text/html", PAGE + "<!-- b -->")));
+
+        List<WarcPage> pages = readAll(new WarcReader(new ByteArrayInputStream(warc)));
+        assertEquals(2, pages.size());
+        assertEquals(PAGE, pages.get(0).getHtml());
+        assertEquals("http://www.example.com/b.html", pages.get(1).getUrl());
+        assertEquals(PAGE + "<!-- b -->", pages.get(1).getHtml());
+    }
+
+    @Test
+    public void readsArchivesGzippedAsAWhole() throws IOException {
+        byte[] warc = gzip(concat(warcinfo(), response("http://www.example.com/a.html", "text/html", PAGE),
+                response("http://www.example.com/b.html", "text/html", PAGE + "<!-- b -->")));
+
+        List<WarcPage> pages = readAll(new WarcReader(new ByteArrayInputStream(warc)));
+        assertEquals(2, pages.size());
+        assertEquals(PAGE, pages.get(0).getHtml());
+        assertEquals(PAGE + "<!-- b -->", pages.get(1).getHtml());
+    }
+
+    @Test
+    public void decodesChunkedGzipResponses() throws IOException {
+        byte[] gzipped = gzip(PAGE.getBytes("UTF-8"));
+        int half = gzipped.length / 2;
+        ByteArrayOutputStream chunked = new ByteArrayOutputStream();
+        chunked.write(ascii(Integer.toHexString(half) + ";name=value\r\n"));
+        chunked.write(gzipped, 0, half);
+        chunked.write(ascii("\r\n" + Integer.toHexString(gzipped.length - half) + "\r\n"));
+        chunked.write(gzipped, half, gzipped.length - half);
+        chunked.write(ascii("\r\n0\r\n\r\n"));
+
+        byte[] warc = response("http://www.example.com/a.html", "HTTP/1.1 200 OK",
+                "Content-Type: text/html\r\nTransfer-Encoding: chunked\r\nContent-Encoding: gzip", chunked.toByteArray());
+        assertEquals(PAGE, readOnlyPage(warc).getHtml());
+    }
+
+    @Test
+    public void decodesDeflateResponses() throws IOException {
+        ByteArrayOutputStream deflated = new ByteArrayOutputStream();
+        DeflaterOutputStream out = new DeflaterOutputStream(deflated);
+        out.write(PAGE.getBytes("UTF-8"));
+        out.close();
+
+        byte[] warc = response("http://www.example.com/a.html", "HTTP/1.1 200 OK", "Content-Type: text/html\r\nContent-Encoding: deflate",
+                deflated.toByteArray());
+        assertEquals(PAGE, readOnlyPage(warc).getHtml());
+    }
+
+    @Test
+    public void skipsRecordsThatArentHtmlPages() throws IOException {
+        byte[] warc = concat(warcinfo(),
+                request("http://www.example.com/a.html"),
+                response("http://www.example.com/image.png", "image/png", "not really a png"),
+                response("http://www.example.com/missing.html", "HTTP/1.1 404 Not Found", "Content-Type: text/html",
+                        ascii("<html>Not found</html>")),
+                response("http://www.example.com/moved.html", "HTTP/1.1 301 Moved Permanently",
+                        "Content-Type: text/html\r\nLocation: http://www.example.com/a.html", ascii("<html>Moved</html>")),
+                record("revisit", "http://www.example.com/a.html", "application/http; msgtype=response",
+                        ascii("HTTP/1.1 200 OK\r\nContent-Type: text/html\r\n\r\n")),
+                record("metadata", "http://www.example.com/a.html", "application/warc-fields",
+                        ascii("outlink: http://www.example.com/\r\n")),
+                response("http://www.example.com/a.html", "text/html", PAGE));
+
+        List<WarcPage> pages = readAll(new WarcReader(new ByteArrayInputStream(warc)));
+        assertEquals(1, pages.size());
+        assertEquals("http://www.example.com/a.html", pages.get(0).getUrl());
+        assertEquals(PAGE, pages.get(0).getHtml());
+    }
+
+    @Test
+    public void skipsResponsesByTheIdentifiedPayloadType() throws IOException {
+        // the http headers say it's html, but the crawler knows better, and the http block isn't read at all
+        byte[] skipped = ascii("WARC/1.0\r\nWARC-Type: response\r\nWARC-Target-URI: http://www.example.com/a.pdf\r\n"
+                + "Content-Type: application/http; msgtype=response\r\nWARC-Identified-Payload-Type: application/pdf\r\n"
+                + "Content-Length: 10\r\n\r\nnot a page\r\n\r\n");
+        byte[] warc = concat(skipped, response("http://www.example.com/a.html", "text/html", PAGE));
+        assertEquals("http://www.example.com/a.html", readOnlyPage(warc).getUrl());
+    }
+
+    @Test
+    public void skipsPagesLargerThanTheMaxPageSize() throws IOException {
+        StringBuilder large = new StringBuilder("<html><body>");
+        for (int i = 0; i < 1000; i++) {
+            large.append("<p>Some text that is repeated.</p>");
+        }
+        large.append("</body></html>");
+
+        byte[] gzipped = gzip(large.toString().getBytes("UTF-8"));
+        byte[] warc = concat(response("http://www.example.com/large.html", "text/html", large.toString()),
+                response("http://www.example.com/gzipped.html", "HTTP/1.1 200 OK", "Content-Type: text/html\r\nContent-Encoding: gzip",
+                        gzipped),
+                response("http://www.example.com/a.html", "text/html", PAGE));
+
+        WarcReader reader = new WarcReader(new ByteArrayInputStream(warc));
+        // the gzipped page is small in the archive, it's only too large once it's decoded
+        reader.setMaxPageSize(gzipped.length + 1024);
+        List<WarcPage> pages = readAll(reader);
+        assertEquals(1, pages.size());
+        assertEquals("http://www.example.com/a.html", pages.get(0).getUrl());
+    }
+
+    @Test
+    public void truncatedPagesAreAnEOFException() throws IOException {
+        byte[] record = response("http://www.example.com/a.html", "text/html", PAGE);
+        assertCutShort(concat(response("http://www.example.com/b.html", "text/html", PAGE), cut(record, record.length - 20)));
+    }
+
+    @Test
+    public void truncatedSkippedRecordsAreAnEOFException() throws IOException {
+        byte[] record = response("http://www.example.com/image.png", "image/png", "not really a png, but long enough to be cut");
+        assertCutShort(concat(response("http://www.example.com/b.html", "text/html", PAGE), cut(record, record.length - 20)));
+    }
+
+    @Test
+    public void truncatedGzipArchivesAreAnEOFException() throws IOException {
+        byte[] warc = gzip(concat(response("http://www.example.com/b.html", "text/html", PAGE),
+                response("http://www.example.com/a.html", "text/html", PAGE)));
+        assertCutShort(cut(warc, warc.length - 30));
+    }
+
+    @Test
+    public void charsetComesFromTheContentType() throws IOException {
+        byte[] html = concat(ascii("<html><head><meta charset=\"utf-8\"></head><body>caf"), new byte[] {(byte) 0xe9},
+                ascii("</body></html>"));
+        byte[] warc = response("http://www.example.com/a.html", "HTTP/1.1 200 OK", "Content-Type: text/html; charset=ISO-8859-1", html);
+        assertEquals("<html><head><meta charset=\"utf-8\"></head><body>caf\u00e9</body></html>", readOnlyPage(warc).getHtml());
+    }
+
+    @Test
+    public void charsetComesFromTheMetaTagWithoutOneInTheContentType() throws IOException {
+        String head = "<html><head><meta http-equiv=\"Content-Type\" content=\"text/html; charset=windows-1251\"></head><body>";
+        byte[] html = concat(ascii(head), "\u041f\u0440\u0438\u0432\u0435\u0442".getBytes("windows-1251"), ascii("</body></html>"));
+        byte[] warc = response("http://www.example.com/a.html", "HTTP/1.1 200 OK", "Content-Type: text/html", html);
+        assertEquals(head + "\u041f\u0440\u0438\u0432\u0435\u0442</body></html>", readOnlyPage(warc).getHtml());
+    }
+
+    @Test
+    public void charsetIsUtf8WithoutOneInTheContentTypeOrThePage() throws IOException {
+        String html = "<html><body>caf\u00e9 \u041f\u0440\u0438\u0432\u0435\u0442</body></html>";
+        byte[] warc = response("http://www.example.com/a.html", "HTTP/1.1 200 OK", "Content-Type: text/html", html.getBytes("UTF-8"));
+        assertEquals(html, readOnlyPage(warc).getHtml());
+    }
+
+    @Test
+    public void unknownCharsetsAreUtf8() throws IOException {
+        String html = "<html><body>caf\u00e9</body></html>";
+        byte[] warc = response("http://www.example.com/a.html", "HTTP/1.1 200 OK", "Content-Type: text/html; charset=no-such-charset",
+                html.getBytes("UTF-8"));
+        assertEquals(html, readOnlyPage(warc).getHtml());
+    }
+
+    @Test(expected = IOException.class)
+    public void filesThatArentWarcsAreAnIOException() throws IOException {
+        readAll(new WarcReader(new ByteArrayInputStream(ascii("<html><body>Not a WARC</body></html>"))));
+    }
+
+    @Test
+    public void emptyArchivesHaveNoPages() throws IOException {
+        assertNull(new WarcReader(new ByteArrayInputStream(new byte[0])).next());
+    }
+
+    private static void assertCutShort(byte[] warc) throws IOException {
+        try {
+            List<WarcPage> pages = readAll(new WarcReader(new ByteArrayInputStream(warc)));
+            fail("Read " + pages + " out of an archive that was cut short");
+        } catch (EOFException expected) {
+            // the archive ended in the middle of a record
+        }
+    }
+
+    private static WarcPage readOnlyPage(byte[] warc) throws IOException {
+        List<WarcPage> pages = readAll(new WarcReader(new ByteArrayInputStream(warc)));
+        assertEquals(1, pages.size());
+        return pages.get(0);
+    }
+
+    private static List<WarcPage> readAll(WarcReader reader) throws IOException {
+        List<WarcPage> pages = new ArrayList<>();
+        try {
+            WarcPage page;
+            while ((page = reader.next()) != null) {
+                pages.add(page);
+            }
+        } finally {
+            reader.close();
+        }
+        return pages;
+    }
+
+    private static byte[] warcinfo() throws IOException {
+        return record("warcinfo", null, "application/warc-fields", ascii("software: a test\r\nformat: WARC File Format 1.0\r\n"));
+    }
+
+    private static byte[] request(String url) throws IOException {
+        return record("request", url, "application/http; msgtype=request", ascii("GET / HTTP/1.1\r\nHost: www.example.com\r\n\r\n"));
+    }
+
+    private static byte[] resource(String url, String html) throws IOException {
+        return record("resource", url, "text/html", html.getBytes("UTF-8"));
+    }
+
+    private static byte[] response(String url, String contentType, String html) throws IOException {
+        return response(url, "HTTP/1.1 200 OK", "Content-Type: " + contentType, html.getBytes("UTF-8"));
+    }
+
+    /**
+     * @return A response record with the status line, the http headers (separated with CRLFs) and the body
+     */
+    private static byte[] response(String url, String statusLine, String httpHeaders, byte[] body) throws IOException {
+        byte[] block = concat(ascii(statusLine + "\r\n" + httpHeaders + "\r\n\r\n"), body);
+        return record("response", url, "application/http; msgtype=response", block);
+    }
+
+    private static byte[] record(String type, String url, String contentType, byte[] block) throws IOException {
+        StringBuilder headers = new StringBuilder("WARC/1.0\r\n");
+        headers.append("WARC-Type: ").append(type).append("\r\n");
+        if (url != null) {
+            headers.append("WARC-Target-URI: ").append(url).append("\r\n");
+        }
+        headers.append("WARC-Date: 2017-06-12T09:00:00Z\r\n");
+        headers.append("WARC-Record-ID: <urn:uuid:").append(url == null ? type : url).append(">\r\n");
+        headers.append("Content-Type: ").append(contentType).append("\r\n");
+        headers.append("Content-Length: ").append(block.length).append("\r\n\r\n");
+        return concat(ascii(headers.toString()), block, ascii("\r\n\r\n"));
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        GZIPOutputStream out = new GZIPOutputStream(gzipped);
+        out.write(bytes);
+        out.close();
+        return gzipped.toByteArray();
+    }
+
+    private static byte[] cut(byte[] bytes, int length) {
+        byte[] cut = new byte[length];
+        System.arraycopy(bytes, 0, cut, 0, length);
+        return cut;
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.write(part, 0, part.length);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] ascii(String text) throws IOException {
+        return text.getBytes("US-ASCII");
+    }
+
+}
@@ -15,3 +15,7 @@
 #-keepclassmembers class fqcn.of.javascript.interface.for.webview {
 #   public *;
 #}
+
+# Goose finds its platform classes through java.util.ServiceLoader
+-keep class * implements me.angrybyte.goose.platform.Logger { <init>(); }
+-keep class * implements me.angrybyte.goose.platform.ImageDecoder { <init>(); }
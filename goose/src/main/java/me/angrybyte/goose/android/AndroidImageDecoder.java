@@ -0,0 +1,45 @@
+package me.angrybyte.goose.android;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import me.angrybyte.goose.images.ImageDetails;
+import me.angrybyte.goose.platform.ImageDecoder;
+
+/**
+ * Reads images with {@link BitmapFactory}
+ */
+public class AndroidImageDecoder implements ImageDecoder {
+
+    @Override
+    public ImageDetails getImageDetails(String filePath) throws IOException {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        // returns null, sizes are in the options variable
+        BitmapFactory.decodeFile(filePath, options);
+
+        ImageDetails imageDetails = new ImageDetails();
+        imageDetails.setMimeType(options.outMimeType);
+        imageDetails.setWidth(options.outWidth);
+        imageDetails.setHeight(options.outHeight);
+        return imageDetails;
+    }
+
+    @Override
+    public boolean writeJpeg(InputStream image, OutputStream jpeg) throws IOException {
+        Bitmap bitmap = BitmapFactory.decodeStream(image);
+        if (bitmap == null) {
+            return false;
+        }
+        try {
+            return bitmap.compress(Bitmap.CompressFormat.JPEG, 100, jpeg);
+        } finally {
+            bitmap.recycle();
+        }
+    }
+
+}
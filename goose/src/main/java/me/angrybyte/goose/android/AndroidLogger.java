@@ -0,0 +1,30 @@
+package me.angrybyte.goose.android;
+
+import android.util.Log;
+
+import me.angrybyte.goose.platform.Logger;
+
+/**
+ * Logs to logcat
+ */
+public class AndroidLogger implements Logger {
+
+    @Override
+    public void warn(String tag, String message, Throwable error) {
+        if (error == null) {
+            Log.w(tag, message);
+        } else {
+            Log.w(tag, message, error);
+        }
+    }
+
+    @Override
+    public void error(String tag, String message, Throwable error) {
+        if (error == null) {
+            Log.e(tag, message);
+        } else {
+            Log.e(tag, message, error);
+        }
+    }
+
+}
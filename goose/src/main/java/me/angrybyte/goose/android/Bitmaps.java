@@ -0,0 +1,31 @@
+package me.angrybyte.goose.android;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+
+import me.angrybyte.goose.network.GooseDownloader;
+
+/**
+ * Loads the images Goose finds, like the top image of an article
+ */
+public final class Bitmaps {
+
+    private Bitmaps() {
+    }
+
+    /**
+     * Downloads a Bitmap image from the given URL.
+     *
+     * @param textUrl Which URL to use
+     * @param followRedirects Whether to follow 301 and 302 server redirect codes
+     * @return A Bitmap object if download succeeds, or {@code null} if download fails
+     */
+    public static Bitmap getPhoto(String textUrl, boolean followRedirects) {
+        byte[] bytes = GooseDownloader.getPhotoBytes(textUrl, followRedirects);
+        if (bytes == null) {
+            return null;
+        }
+        return BitmapFactory.decodeByteArray(bytes, 0, bytes.length);
+    }
+
+}